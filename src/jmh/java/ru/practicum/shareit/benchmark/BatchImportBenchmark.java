@@ -0,0 +1,127 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.event.EventRing;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJdbcRepository;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка {@code rows} вещей одним пакетом {@code POST /items/batch} (NDJSON) против стольких же
+ * одиночных {@code addItem}. Оба пути идут через сервис, поэтому разница — в поиске владельца,
+ * построчной обработке и пакетной записи в хранилище.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class BatchImportBenchmark {
+
+    @Param({"memory", "h2"})
+    private String storage;
+
+    @Param({"10000"})
+    private int rows;
+
+    private HikariDataSource dataSource;
+    private ItemServiceImpl itemService;
+    private long ownerId;
+    private byte[] ndjson;
+    private List<ItemDto> items;
+
+    /**
+     * Хранилище пересоздаётся перед каждым замером, чтобы загрузка шла в пустой каталог.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        UserRepository users;
+        ItemRepository itemRepository;
+        if (storage.equals("h2")) {
+            dataSource = H2Database.create();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            users = new UserJdbcRepository(jdbcTemplate, transactionTemplate);
+            itemRepository = new ItemJdbcRepository(jdbcTemplate, transactionTemplate);
+        } else {
+            users = new UserMemoryRepository();
+            itemRepository = new ItemMemoryRepository();
+        }
+        // модули, как у ObjectMapper приложения: без ParameterNamesModule ItemDto не читается
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        itemService = new ItemServiceImpl(itemRepository,
+                new RequestLoaders(users, itemRepository, new ItemRequestMemoryRepository()),
+                objectMapper, new EventRing(1024));
+        ownerId = users.addUser(new User("owner", "owner@shareit.ru")).getId();
+        items = new ArrayList<>(rows);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ItemDto item = new ItemDto("Дрель", "Аккумуляторная дрель №" + i, true, null);
+            items.add(item);
+            body.append(objectMapper.writeValueAsString(item)).append('\n');
+        }
+        ndjson = body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    @Benchmark
+    public ItemBatchResultDto batchImport() throws IOException {
+        ItemBatchResultDto result = itemService.addItems(ownerId, new ByteArrayInputStream(ndjson));
+        if (result.getCreated() != rows) {
+            throw new IllegalStateException("Загружено " + result.getCreated() + " из " + rows + ": "
+                    + result.getErrors());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long singleInserts() {
+        long lastId = 0;
+        for (ItemDto item : items) {
+            lastId = itemService.addItem(ownerId, item).getId();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Запускает бенчмарки по разу на каждое число потоков из {@code jmh.threads} и сохраняет
+ * результаты в JSON ({@code jmh.resultDir}/threads-N.json) для сравнения между ревизиями.
+ * Остальные аргументы передаются JMH как есть, например {@code -p catalogSize=1000 Item}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        File resultDir = new File(System.getProperty("jmh.resultDir", "target/jmh"));
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("Не удалось создать каталог " + resultDir);
+        }
+        for (String threads : System.getProperty("jmh.threads", "1").split(",")) {
+            File result = new File(resultDir, "threads-" + threads.trim() + ".json");
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.getPath())
+                    .build()).run();
+        }
+    }
+}
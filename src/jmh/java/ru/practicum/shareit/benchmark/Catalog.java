@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный генератор каталога: одинаковый набор вещей при каждом запуске,
+ * чтобы результаты до и после изменения были сопоставимы.
+ */
+final class Catalog {
+    static final int ITEMS_PER_OWNER = 100;
+
+    private static final String[] NAMES = {
+        "Дрель", "Отвертка", "Перфоратор", "Шуруповерт", "Лестница", "Палатка", "Велосипед",
+        "Пылесос", "Лобзик", "Рубанок", "Болгарка", "Стремянка", "Удочка", "Мангал", "Кофеварка"
+    };
+    private static final String[] ADJECTIVES = {
+        "простая", "аккумуляторная", "ударная", "складная", "большая", "туристическая",
+        "профессиональная", "компактная", "старая", "новая"
+    };
+
+    private Catalog() {
+    }
+
+    static List<User> owners(int catalogSize) {
+        return users(Math.max(1, catalogSize / ITEMS_PER_OWNER));
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User("user" + i, "user" + i + "@shareit.ru");
+            user.setId((long) i);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Item> items(List<User> owners, int catalogSize) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Item> items = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            Item item = new Item(name, adjective + " " + name.toLowerCase() + " №" + i, random.nextInt(10) != 0);
+            item.setOwner(owners.get(i % owners.size()));
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.repository.BookingMemoryRepository;
+import ru.practicum.shareit.event.EventRing;
+import ru.practicum.shareit.exeption.ErrorHandler;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Успешный путь сервиса против ошибочного, доведённого до ответа {@link ErrorHandler}.
+ * Для ожидаемых 404/409 ошибочный путь не должен быть дороже успешного в разы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+    private static final long MISSING_ID = Long.MAX_VALUE;
+
+    private ItemServiceImpl itemService;
+    private UserServiceImpl userService;
+    private ErrorHandler errorHandler;
+    private long itemId;
+    private String takenEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserMemoryRepository userRepository = new UserMemoryRepository();
+        ItemMemoryRepository itemRepository = new ItemMemoryRepository();
+        EventRing events = new EventRing(1024);
+        itemService = new ItemServiceImpl(itemRepository,
+                new RequestLoaders(userRepository, itemRepository, new ItemRequestMemoryRepository()),
+                new ObjectMapper(), events);
+        userService = new UserServiceImpl(userRepository, itemRepository, new BookingMemoryRepository(), events);
+        errorHandler = new ErrorHandler(new SimpleMeterRegistry());
+        takenEmail = "owner@shareit.ru";
+        UserDto owner = userService.addUser(new UserDto("owner", takenEmail));
+        itemId = itemService.addItem(owner.getId(), new ItemDto("Дрель", "Простая дрель", true, null)).getId();
+    }
+
+    @Benchmark
+    public Object getItemFound() {
+        return ResponseEntity.ok(itemService.getItemById(itemId));
+    }
+
+    @Benchmark
+    public Object getItemNotFound() {
+        try {
+            return ResponseEntity.ok(itemService.getItemById(MISSING_ID));
+        } catch (NotFoundException e) {
+            return errorHandler.handleNotFound(e);
+        }
+    }
+
+    @Benchmark
+    public Object getUserFound() {
+        return ResponseEntity.ok(userService.getUserById(1));
+    }
+
+    @Benchmark
+    public Object getUserNotFound() {
+        try {
+            return ResponseEntity.ok(userService.getUserById(MISSING_ID));
+        } catch (NotFoundException e) {
+            return errorHandler.handleNotFound(e);
+        }
+    }
+
+    @Benchmark
+    public Object addUserDuplicateEmail() {
+        try {
+            return ResponseEntity.ok(userService.addUser(new UserDto("copy", takenEmail)));
+        } catch (ValidationException e) {
+            return errorHandler.handleNotValid(e);
+        }
+    }
+}
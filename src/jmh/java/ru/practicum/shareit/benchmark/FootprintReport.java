@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemCompactRepository;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserCompactRepository;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Занимаемая хранилищами куча: прирост живых объектов после сборки мусора для хранилища
+ * на объектах и для столбцового ({@code compact}). Аргументы — размеры каталога,
+ * результат дописывается в {@code footprint.csv} в каталоге результатов JMH.
+ */
+public final class FootprintReport {
+    private static final int CHUNK = 10_000;
+
+    private FootprintReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> sizes = new ArrayList<>();
+        for (String arg : args) {
+            sizes.add(Integer.parseInt(arg));
+        }
+        if (sizes.isEmpty()) {
+            sizes = List.of(100_000, 1_000_000);
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("backend,catalogSize,bytes,bytesPerItem");
+        for (int catalogSize : sizes) {
+            for (String backend : List.of("memory", "compact")) {
+                long bytes = measure(backend, catalogSize);
+                String line = String.format(Locale.ROOT, "%s,%d,%d,%.1f",
+                        backend, catalogSize, bytes, (double) bytes / catalogSize);
+                System.out.println(line);
+                lines.add(line);
+            }
+        }
+        Path directory = Path.of(System.getProperty("jmh.resultDir", "target/jmh"));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("footprint.csv"), lines);
+    }
+
+    private static long measure(String backend, int catalogSize) {
+        long before = usedHeap();
+        Object[] repositories = populate(backend, catalogSize);
+        long after = usedHeap();
+        Reference.reachabilityFence(repositories);
+        return after - before;
+    }
+
+    private static Object[] populate(String backend, int catalogSize) {
+        UserRepository users;
+        ItemRepository items;
+        if ("compact".equals(backend)) {
+            users = new UserCompactRepository();
+            items = new ItemCompactRepository(users);
+        } else {
+            users = new UserMemoryRepository();
+            items = new ItemMemoryRepository();
+        }
+        List<User> owners = new ArrayList<>();
+        for (User owner : Catalog.owners(catalogSize)) {
+            owners.add(users.addUser(new User(owner.getName(), owner.getEmail())));
+        }
+        List<Item> catalog = Catalog.items(owners, catalogSize);
+        for (int from = 0; from < catalog.size(); from += CHUNK) {
+            items.addItems(catalog.subList(from, Math.min(from + CHUNK, catalog.size())));
+        }
+        return new Object[]{users, items};
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Отдельная база H2 в памяти со схемой приложения для замеров профиля {@code jdbc}.
+ * Соединения берутся из пула, как у приложения: иначе замер покажет стоимость открытия соединения.
+ */
+final class H2Database {
+
+    private H2Database() {
+    }
+
+    static HikariDataSource create() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:bench-" + System.nanoTime());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
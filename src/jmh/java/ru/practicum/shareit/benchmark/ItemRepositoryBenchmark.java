@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ItemRepositoryBenchmark {
+    private static final PageParams FIRST_PAGE = new PageParams(0, 0, 20);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogSize;
+
+    private ItemMemoryRepository repository;
+    private int ownerCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new ItemMemoryRepository();
+        List<Item> items = Catalog.items(Catalog.owners(catalogSize), catalogSize);
+        repository.addItems(items);
+        ownerCount = Math.max(1, catalogSize / Catalog.ITEMS_PER_OWNER);
+    }
+
+    @Benchmark
+    public List<Item> searchShortQuery() {
+        return repository.getItemsBySearch("дре", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> searchLongQuery() {
+        return repository.getItemsBySearch("аккумуляторная дрель", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> searchMiss() {
+        return repository.getItemsBySearch("экскаватор", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> searchAll() {
+        return repository.getItemsBySearch("рель", PageParams.ALL);
+    }
+
+    @Benchmark
+    public List<Item> searchTopTen() {
+        return repository.getTopItemsBySearch("аккумуляторная дрель", 10);
+    }
+
+    @Benchmark
+    public List<Item> ownerItemsPage() {
+        long ownerId = ThreadLocalRandom.current().nextInt(ownerCount) + 1;
+        return repository.getAllItemsByUserId(ownerId, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> ownerItemsAll() {
+        long ownerId = ThreadLocalRandom.current().nextInt(ownerCount) + 1;
+        return repository.getAllItemsByUserId(ownerId, PageParams.ALL);
+    }
+}
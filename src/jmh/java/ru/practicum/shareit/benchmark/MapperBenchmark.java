@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование модель → DTO → модель для всего списка, как при выдаче страницы или экспорте.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class MapperBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogSize;
+
+    private List<User> users;
+    private List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = Catalog.users(catalogSize);
+        items = Catalog.items(Catalog.owners(catalogSize), catalogSize);
+        long id = 1;
+        for (Item item : items) {
+            item.setId(id++);
+        }
+    }
+
+    @Benchmark
+    public void itemRoundTrip(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.toItem(ItemMapper.toItemDto(item)));
+        }
+    }
+
+    @Benchmark
+    public void userRoundTrip(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(UserMapper.toUser(UserMapper.toUserDto(user)));
+        }
+    }
+}
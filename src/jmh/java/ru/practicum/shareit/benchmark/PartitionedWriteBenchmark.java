@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.repository.ItemPartitionedRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.partition.Partitions;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserPartitionedRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность записи вещей разных владельцев в общее хранилище в памяти и в хранилище,
+ * разбитое на разделы ({@code partitions = 0} — по числу ядер). Масштабирование смотрится
+ * по результатам для разного числа потоков из {@code jmh.threads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PartitionedWriteBenchmark {
+    private static final int OWNERS = 1024;
+
+    @Param({"memory", "partitioned"})
+    private String backend;
+
+    @Param({"0"})
+    private int partitionCount;
+
+    private Partitions partitions;
+    private ItemRepository repository;
+    private final List<User> owners = new ArrayList<>(OWNERS);
+
+    /**
+     * Хранилище пересоздаётся на каждой итерации, чтобы рост каталога не менял условия замера.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        UserRepository users;
+        if ("partitioned".equals(backend)) {
+            partitions = new Partitions(partitionCount);
+            users = new UserPartitionedRepository(partitions);
+            repository = new ItemPartitionedRepository(partitions);
+        } else {
+            users = new UserMemoryRepository();
+            repository = new ItemMemoryRepository();
+        }
+        owners.clear();
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(users.addUser(new User("owner" + i, "owner" + i + "@shareit.ru")));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (partitions != null) {
+            partitions.shutdown();
+            partitions = null;
+        }
+    }
+
+    @Benchmark
+    public Item addItem() {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        Item item = new Item("Дрель " + n, "Ударная дрель номер " + n, true);
+        item.setOwner(owners.get(n & (OWNERS - 1)));
+        return repository.addItem(item);
+    }
+}
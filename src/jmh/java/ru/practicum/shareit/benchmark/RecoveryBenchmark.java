@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.journal.DurableStorage;
+import ru.practicum.shareit.journal.FileJournal;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Время перезапуска хранилища в памяти: восстановление только из журнала или из снимка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class RecoveryBenchmark {
+    private static final int CHUNK = 10_000;
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"journal", "snapshot"})
+    private String source;
+
+    private Path directory;
+    private FileJournal journal;
+
+    @Setup(Level.Trial)
+    public void populate() throws Exception {
+        directory = Files.createTempDirectory("shareit-recovery");
+        FileJournal writer = new FileJournal(directory, SEGMENT_SIZE);
+        UserMemoryRepository users = new UserMemoryRepository(writer);
+        ItemMemoryRepository items = new ItemMemoryRepository(writer);
+        DurableStorage storage = new DurableStorage(writer, users, items, new ItemRequestMemoryRepository(writer),
+                directory);
+        storage.recover();
+        List<User> owners = Catalog.owners(catalogSize);
+        for (User owner : owners) {
+            users.addUser(new User(owner.getName(), owner.getEmail()));
+        }
+        List<Item> catalog = Catalog.items(owners, catalogSize);
+        for (int from = 0; from < catalog.size(); from += CHUNK) {
+            items.addItems(catalog.subList(from, Math.min(from + CHUNK, catalog.size())));
+        }
+        if ("snapshot".equals(source)) {
+            storage.snapshot();
+        }
+        writer.close();
+    }
+
+    @Benchmark
+    public ItemMemoryRepository restart() throws IOException {
+        journal = new FileJournal(directory, SEGMENT_SIZE);
+        UserMemoryRepository users = new UserMemoryRepository(journal);
+        ItemMemoryRepository items = new ItemMemoryRepository(journal);
+        new DurableStorage(journal, users, items, new ItemRequestMemoryRepository(journal), directory).recover();
+        return items;
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() throws InterruptedException {
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
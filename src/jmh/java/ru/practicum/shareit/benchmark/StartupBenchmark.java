@@ -0,0 +1,154 @@
+package ru.practicum.shareit.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Время холодного старта приложения в обычном режиме и в режиме {@code fast-startup}
+ * (AOT, архив AppCDS, ленивая инициализация инфраструктуры): от запуска JVM до первого ответа
+ * по HTTP и до первого успешного {@code GET /items/{id}}. Хранилище при старте пустое, поэтому
+ * на первый 404 заводятся пользователь и вещь, и запрос повторяется. Оба варианта приложения
+ * собираются заранее ({@code mvn -Pfast-startup package}), аргумент — число замеров на режим,
+ * результат пишется в {@code startup.csv} в каталоге результатов JMH.
+ */
+public final class StartupBenchmark {
+    private static final long TIMEOUT_SECONDS = 120;
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path target = Path.of(System.getProperty("bench.buildDir", "target"));
+        String jar = System.getProperty("bench.finalName", "shareit-0.0.1-SNAPSHOT") + ".jar";
+        Path fastDir = target.resolve("fast-startup");
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", List.of("java", "-jar", target.resolve(jar).toString()));
+        modes.put("fast-startup", List.of("java",
+                "-XX:SharedArchiveFile=" + fastDir.resolve("application.jsa"),
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-startup",
+                "-jar", fastDir.resolve(jar).toString()));
+
+        Path directory = Path.of(System.getProperty("jmh.resultDir", "target/jmh"));
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>();
+        lines.add("mode,run,firstResponseMillis,firstItemMillis");
+        Map<String, List<long[]>> results = new LinkedHashMap<>();
+        // первый запуск каждого режима прогревает файловый кеш и не учитывается
+        for (int run = 0; run <= runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long[] millis = measure(mode.getValue(), directory.resolve("startup-" + mode.getKey() + ".log"));
+                if (run == 0) {
+                    continue;
+                }
+                results.computeIfAbsent(mode.getKey(), key -> new ArrayList<>()).add(millis);
+                lines.add(String.format(Locale.ROOT, "%s,%d,%d,%d", mode.getKey(), run, millis[0], millis[1]));
+                System.out.printf(Locale.ROOT, "%-12s запуск %d: первый ответ %d мс, первый GET /items/{id} %d мс%n",
+                        mode.getKey(), run, millis[0], millis[1]);
+            }
+        }
+        for (Map.Entry<String, List<long[]>> mode : results.entrySet()) {
+            System.out.printf(Locale.ROOT, "%-12s медиана: первый ответ %d мс, первый GET /items/{id} %d мс%n",
+                    mode.getKey(), median(mode.getValue(), 0), median(mode.getValue(), 1));
+        }
+        Files.write(directory.resolve("startup.csv"), lines);
+    }
+
+    private static long[] measure(List<String> command, Path log) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        String baseUrl = "http://localhost:" + port;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(arguments).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long firstResponse = -1;
+            long itemId = 1;
+            while (System.nanoTime() - started < TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Приложение завершилось при старте, см. " + log);
+                }
+                HttpResponse<String> response;
+                try {
+                    response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/items/" + itemId)).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                } catch (ConnectException | HttpTimeoutException e) {
+                    Thread.sleep(5);
+                    continue;
+                }
+                if (firstResponse < 0) {
+                    firstResponse = System.nanoTime();
+                }
+                if (response.statusCode() == 200) {
+                    return new long[]{millisSince(started, firstResponse), millisSince(started, System.nanoTime())};
+                }
+                itemId = seed(client, baseUrl);
+            }
+            throw new IllegalStateException("Приложение не ответило за " + TIMEOUT_SECONDS + " с, см. " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long seed(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        long userId = id(client.send(post(baseUrl + "/users", "{\"name\":\"startup\",\"email\":\"startup@mail.ru\"}")
+                .build(), HttpResponse.BodyHandlers.ofString()));
+        String item = "{\"name\":\"Дрель\",\"description\":\"Простая\",\"available\":true}";
+        return id(client.send(post(baseUrl + "/items", item)
+                .header("X-Sharer-User-Id", Long.toString(userId))
+                .build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static HttpRequest.Builder post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static long id(HttpResponse<String> response) {
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Не удалось завести данные: " + response.statusCode() + " "
+                    + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static long median(List<long[]> values, int index) {
+        return values.stream().mapToLong(value -> value[index]).sorted().skip(values.size() / 2).findFirst().orElse(-1);
+    }
+
+    private static long millisSince(long started, long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos - started);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJdbcRepository;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Основные операции хранилища вещей в памяти и в H2 через JDBC (профиль {@code jdbc}) на одном каталоге.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class StorageBenchmark {
+    private static final PageParams FIRST_PAGE = new PageParams(0, 0, 20);
+    private static final Set<ItemField> DESCRIPTION = EnumSet.of(ItemField.DESCRIPTION);
+    private static final int CHUNK = 1000;
+
+    @Param({"memory", "h2"})
+    private String storage;
+
+    @Param({"10000", "100000"})
+    private int catalogSize;
+
+    private HikariDataSource dataSource;
+    private ItemRepository repository;
+    private List<User> owners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository users;
+        if (storage.equals("h2")) {
+            dataSource = H2Database.create();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            users = new UserJdbcRepository(jdbcTemplate, transactionTemplate);
+            repository = new ItemJdbcRepository(jdbcTemplate, transactionTemplate);
+        } else {
+            users = new UserMemoryRepository();
+            repository = new ItemMemoryRepository();
+        }
+        owners = Catalog.owners(catalogSize);
+        owners.forEach(users::addUser);
+        List<Item> items = Catalog.items(owners, catalogSize);
+        for (int from = 0; from < items.size(); from += CHUNK) {
+            repository.addItems(items.subList(from, Math.min(from + CHUNK, items.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public Item getItemById() {
+        return repository.getItemById(ThreadLocalRandom.current().nextLong(catalogSize) + 1);
+    }
+
+    @Benchmark
+    public List<Item> ownerItemsPage() {
+        return repository.getAllItemsByUserId(randomOwner().getId(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> searchShortQuery() {
+        return repository.getItemsBySearch("дре", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Item addItem() {
+        Item item = new Item("Дрель", "Новая дрель", true);
+        item.setOwner(randomOwner());
+        return repository.addItem(item);
+    }
+
+    @Benchmark
+    public boolean updateItem() {
+        Item item = new Item(repository.getItemById(ThreadLocalRandom.current().nextLong(catalogSize) + 1));
+        item.setDescription("Изменённая дрель");
+        return repository.updateItem(item, DESCRIPTION);
+    }
+
+    private User randomOwner() {
+        return owners.get(ThreadLocalRandom.current().nextInt(owners.size()));
+    }
+}
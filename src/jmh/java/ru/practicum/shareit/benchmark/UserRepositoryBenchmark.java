@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class UserRepositoryBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int userCount;
+
+    private UserMemoryRepository repository;
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    /**
+     * Хранилище пересоздаётся на каждой итерации, чтобы addUser не раздувал его сверх заданного размера.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = new UserMemoryRepository();
+        for (int i = 0; i < userCount; i++) {
+            repository.addUser(new User("user" + i, "user" + i + "@shareit.ru"));
+        }
+        nextEmail.set(userCount);
+    }
+
+    @Benchmark
+    public User addUser() {
+        long n = nextEmail.getAndIncrement();
+        return repository.addUser(new User("user" + n, "user" + n + "@shareit.ru"));
+    }
+
+    @Benchmark
+    public User addUserDuplicateEmail() {
+        int n = ThreadLocalRandom.current().nextInt(userCount);
+        return repository.addUser(new User("user" + n, "user" + n + "@shareit.ru"));
+    }
+
+    @Benchmark
+    public boolean isEmailPresentHit() {
+        int n = ThreadLocalRandom.current().nextInt(userCount);
+        return repository.isEmailPresent("user" + n + "@shareit.ru");
+    }
+
+    @Benchmark
+    public boolean isEmailPresentMiss() {
+        int n = ThreadLocalRandom.current().nextInt(userCount);
+        return repository.isEmailPresent("missing" + n + "@shareit.ru");
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import ru.practicum.shareit.exeption.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроль допуска перед контроллерами вещей и пользователей: сначала ведро токенов пользователя
+ * из {@code X-Sharer-User-Id}, затем общий предел одновременных запросов (см. {@link ConcurrencyLimiter}).
+ * Отказ — 429 с {@code Retry-After}, до чтения тела и до сервисов. Запросы без заголовка
+ * (создание пользователя, чтение) проходят только общий предел. Если ответ пишется асинхронно
+ * (потоковая выгрузка), место освобождается при переходе в асинхронный режим без замера задержки.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String STARTED = AdmissionInterceptor.class.getName() + ".started";
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+    private static final double BACKOFF = 0.9;
+
+    private final UserRateLimiter users;
+    private final ConcurrencyLimiter limiter;
+    private Counter userRejections;
+    private Counter overloadRejections;
+
+    public AdmissionInterceptor(@Value("${shareit.admission.user-rate}") double userRate,
+                                @Value("${shareit.admission.user-burst}") int userBurst,
+                                @Value("${shareit.admission.user-idle}") Duration userIdle,
+                                @Value("${shareit.admission.initial-limit}") int initialLimit,
+                                @Value("${shareit.admission.min-limit}") int minLimit,
+                                @Value("${shareit.admission.max-limit}") int maxLimit,
+                                @Value("${shareit.admission.latency-target}") Duration latencyTarget) {
+        this.users = new UserRateLimiter(userRate, userBurst, userIdle.toNanos(), System.nanoTime());
+        this.limiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTarget.toNanos(), BACKOFF);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long now = System.nanoTime();
+        Long userId = userId(request);
+        if (userId != null) {
+            long wait = users.tryAcquire(userId, now);
+            if (wait > 0) {
+                reject(userRejections);
+                throw new TooManyRequestsException("Превышена частота запросов пользователя с ИД " + userId + ".",
+                        Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            }
+        }
+        if (!limiter.tryAcquire()) {
+            reject(overloadRejections);
+            throw new TooManyRequestsException("Сервер перегружен, запрос отклонён.", OVERLOAD_RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(STARTED, now);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(STARTED) != null) {
+            request.removeAttribute(STARTED);
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object started = request.getAttribute(STARTED);
+        if (started != null) {
+            request.removeAttribute(STARTED);
+            limiter.release((Long) started, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        userRejections = rejections(registry, "user");
+        overloadRejections = rejections(registry, "overload");
+        Gauge.builder("shareit.admission.limit", limiter, ConcurrencyLimiter::limit).register(registry);
+        Gauge.builder("shareit.admission.in-flight", limiter, ConcurrencyLimiter::inFlight).register(registry);
+        Gauge.builder("shareit.admission.users", users, UserRateLimiter::size).register(registry);
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("shareit.admission.rejected").tag("reason", reason).register(registry);
+    }
+
+    private static void reject(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    // некорректный заголовок здесь не разбирается: ошибку вернёт контроллер
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Общий предел одновременно обрабатываемых запросов, подстраиваемый по задержке (AIMD): пока
+ * задержки укладываются в цель и предел используется, он растёт на единицу за «окно» из предела
+ * запросов; задержка выше цели уменьшает его в {@code backoff} раз. Уменьшение срабатывает не чаще
+ * раза на поколение запросов: медленные ответы, начатые до прошлого уменьшения, его не повторяют.
+ * Все поля меняются через CAS, блокировок нет.
+ */
+class ConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease = new AtomicLong(Long.MIN_VALUE);
+
+    ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Пределы нагрузки должны удовлетворять 0 < min <= initial <= max.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    boolean tryAcquire() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место без замера, например когда ответ дальше пишется асинхронно.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Освобождает место и учитывает задержку запроса, начатого в {@code startNanos}.
+     */
+    void release(long startNanos, long endNanos) {
+        int busy = inFlight.getAndDecrement();
+        if (endNanos - startNanos > targetNanos) {
+            long last = lastDecrease.get();
+            if ((last == Long.MIN_VALUE || startNanos - last > 0) && lastDecrease.compareAndSet(last, endNanos)) {
+                update(limit -> Math.max(minLimit, limit * backoff));
+            }
+        } else if (busy * 2 >= limit()) {
+            // простаивающий предел не растёт, иначе после затишья он не успеет сжаться до перегрузки
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(change.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов на пользователя в виде GCRA: состояние ведра — одно число, теоретическое время
+ * прибытия следующего запроса, которое меняется одним CAS без блокировок. Ведро, простоявшее полным
+ * дольше {@code idleNanos}, удаляется при очередной чистке: новое ведро для того же пользователя
+ * ничем от него не отличается.
+ */
+class UserRateLimiter {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long idleNanos;
+    private final Map<Long, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    UserRateLimiter(double ratePerSecond, int burst, long idleNanos, long nowNanos) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Частота и запас запросов пользователя должны быть положительными.");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.idleNanos = idleNanos;
+        this.nextSweep = new AtomicLong(nowNanos + idleNanos);
+    }
+
+    /**
+     * @return 0, если запрос допущен, иначе сколько наносекунд ждать до следующего токена
+     */
+    long tryAcquire(long userId, long nowNanos) {
+        sweepIfDue(nowNanos);
+        AtomicLong arrival = arrivals.get(userId);
+        if (arrival == null) {
+            arrival = arrivals.computeIfAbsent(userId, key -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long expected = arrival.get();
+            long start = Math.max(expected, nowNanos);
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(expected, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return arrivals.size();
+    }
+
+    // чистку выполняет один поток, выигравший CAS; запрос, успевший взять удаляемое ведро, расходует
+    // токен полного ведра, которое потом создаётся заново, — это не больше одного лишнего токена
+    private void sweepIfDue(long nowNanos) {
+        long due = nextSweep.get();
+        if (nowNanos - due < 0 || !nextSweep.compareAndSet(due, nowNanos + idleNanos)) {
+            return;
+        }
+        arrivals.values().removeIf(arrival -> nowNanos - arrival.get() > idleNanos);
+    }
+}
@@ -1,12 +1,60 @@
 package ru.practicum.shareit.booking.controller;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.util.List;
 
 /**
  * TODO Sprint add-bookings.
  */
+@Validated
 @RestController
+@AllArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private final BookingService bookingService;
+
+    @PostMapping
+    public BookingDto createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestBody @Valid BookingRequestDto bookingRequestDto) {
+        return bookingService.addBooking(userId, bookingRequestDto);
+    }
+
+    @PatchMapping("/{id}")
+    public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @PathVariable @Positive long id,
+                                     @RequestParam boolean approved) {
+        return bookingService.approveBooking(userId, id, approved);
+    }
+
+    @GetMapping("/{id}")
+    public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                     @PathVariable @Positive long id) {
+        return bookingService.getBookingById(userId, id);
+    }
+
+    @GetMapping
+    public List<BookingDto> getBookingsByBookerId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                  @RequestParam(required = false) @Positive Integer size) {
+        return bookingService.getBookingsByBookerId(userId, state, PageParams.of(from, size, null));
+    }
+
+    @GetMapping("/owner")
+    public List<BookingDto> getBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                 @RequestParam(required = false) @Positive Integer size) {
+        return bookingService.getBookingsByOwnerId(userId, state, PageParams.of(from, size, null));
+    }
 }
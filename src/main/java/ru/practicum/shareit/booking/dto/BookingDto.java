@@ -1,7 +1,21 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+
 /**
  * TODO Sprint add-bookings.
  */
+@Data
 public class BookingDto {
+    private Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final ItemDto item;
+    private final UserDto booker;
+    private final BookingStatus status;
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.mapper;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+public class BookingMapper {
+
+    public static BookingDto toBookingDto(Booking booking) {
+        return toBookingDto(booking, booking.getItem(), booking.getBooker());
+    }
+
+    /**
+     * Бронирование с текущим состоянием вещи и арендатора, загруженным отдельно.
+     */
+    public static BookingDto toBookingDto(Booking booking, Item item, User booker) {
+        BookingDto bookingDto = new BookingDto(
+                booking.getStart(),
+                booking.getEnd(),
+                ItemMapper.toItemDto(item),
+                UserMapper.toUserDto(booker),
+                booking.getStatus()
+        );
+        bookingDto.setId(booking.getId());
+        return bookingDto;
+    }
+
+    public static Booking toBooking(BookingRequestDto bookingRequestDto, Item item, User booker) {
+        Booking booking = new Booking(
+                bookingRequestDto.getStart(),
+                bookingRequestDto.getEnd(),
+                item,
+                booker
+        );
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+}
@@ -16,5 +16,5 @@ public class Booking {
     private final LocalDateTime end;
     private final Item item;
     private final User booker;
-    private String status;
+    private BookingStatus status;
 }
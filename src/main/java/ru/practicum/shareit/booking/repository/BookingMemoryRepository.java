@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Repository
+public class BookingMemoryRepository implements BookingRepository {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Long, Booking> bookingMap = new ConcurrentHashMap<>();
+    private final Map<Long, ItemSchedule> itemSchedules = new ConcurrentHashMap<>();
+    private final Map<Long, BookingTimeline> bookerTimelines = new ConcurrentHashMap<>();
+    private final Map<Long, BookingTimeline> ownerTimelines = new ConcurrentHashMap<>();
+    private final AtomicLong bookingId = new AtomicLong(1);
+    // рассмотрение одного бронирования идёт под одной блокировкой
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    public BookingMemoryRepository() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Booking addBooking(Booking booking) {
+        booking.setId(bookingId.getAndIncrement());
+        bookingMap.put(booking.getId(), booking);
+        bookerTimelines.computeIfAbsent(booking.getBooker().getId(), key -> new BookingTimeline()).add(booking);
+        ownerTimelines.computeIfAbsent(ownerId(booking), key -> new BookingTimeline()).add(booking);
+        return booking;
+    }
+
+    @Override
+    public Booking getBookingById(Long id) {
+        return bookingMap.get(id);
+    }
+
+    @Override
+    public boolean isItemAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSchedule schedule = itemSchedules.get(itemId);
+        return schedule == null || schedule.isFree(start, end);
+    }
+
+    @Override
+    public ReviewResult reviewBooking(Booking booking, boolean approved) {
+        Lock lock = lockFor(booking);
+        lock.lock();
+        try {
+            if (bookingMap.get(booking.getId()) != booking) {
+                return ReviewResult.DELETED;
+            }
+            if (booking.getStatus() != BookingStatus.WAITING) {
+                return ReviewResult.ALREADY_REVIEWED;
+            }
+            if (approved && !itemSchedules.computeIfAbsent(booking.getItem().getId(), key -> new ItemSchedule())
+                    .book(booking)) {
+                return ReviewResult.ITEM_BOOKED;
+            }
+            changeStatus(booking, approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            return ReviewResult.REVIEWED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Booking> getBookingsByBookerId(long bookerId, BookingState state, LocalDateTime now,
+                                               PageParams page) {
+        BookingTimeline timeline = bookerTimelines.get(bookerId);
+        return timeline == null ? new ArrayList<>() : timeline.find(state, now, page);
+    }
+
+    @Override
+    public List<Booking> getBookingsByOwnerId(long ownerId, BookingState state, LocalDateTime now,
+                                              PageParams page) {
+        BookingTimeline timeline = ownerTimelines.get(ownerId);
+        return timeline == null ? new ArrayList<>() : timeline.find(state, now, page);
+    }
+
+    @Override
+    public void deleteBookingsByUserId(long userId) {
+        List<Booking> bookings = new ArrayList<>();
+        BookingTimeline asBooker = bookerTimelines.remove(userId);
+        if (asBooker != null) {
+            bookings.addAll(asBooker.all());
+        }
+        BookingTimeline asOwner = ownerTimelines.remove(userId);
+        if (asOwner != null) {
+            bookings.addAll(asOwner.all());
+        }
+        for (Booking booking : bookings) {
+            Lock lock = lockFor(booking);
+            lock.lock();
+            try {
+                if (bookingMap.remove(booking.getId()) == null) {
+                    continue;
+                }
+                removeFrom(bookerTimelines, booking.getBooker().getId(), booking);
+                removeFrom(ownerTimelines, ownerId(booking), booking);
+                ItemSchedule schedule = itemSchedules.get(booking.getItem().getId());
+                if (schedule != null) {
+                    schedule.cancel(booking);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Lock lockFor(Booking booking) {
+        return locks[Long.hashCode(booking.getId()) & (LOCK_STRIPES - 1)];
+    }
+
+    private static void removeFrom(Map<Long, BookingTimeline> timelines, long userId, Booking booking) {
+        BookingTimeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.remove(booking);
+        }
+    }
+
+    // вызывается под блокировкой бронирования, поэтому прежний статус всегда WAITING
+    private void changeStatus(Booking booking, BookingStatus status) {
+        booking.setStatus(status);
+        bookerTimelines.get(booking.getBooker().getId()).changeStatus(booking, BookingStatus.WAITING);
+        ownerTimelines.get(ownerId(booking)).changeStatus(booking, BookingStatus.WAITING);
+    }
+
+    private static long ownerId(Booking booking) {
+        return booking.getItem().getOwner().getId();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepository {
+
+    Booking addBooking(Booking booking);
+
+    Booking getBookingById(Long id);
+
+    boolean isItemAvailable(long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Атомарно переводит ожидающее бронирование в APPROVED или REJECTED.
+     */
+    ReviewResult reviewBooking(Booking booking, boolean approved);
+
+    List<Booking> getBookingsByBookerId(long bookerId, BookingState state, LocalDateTime now, PageParams page);
+
+    List<Booking> getBookingsByOwnerId(long ownerId, BookingState state, LocalDateTime now, PageParams page);
+
+    /**
+     * Удаляет бронирования пользователя как арендатора и бронирования его вещей.
+     */
+    void deleteBookingsByUserId(long userId);
+
+    enum ReviewResult {
+        REVIEWED,
+        // бронирование уже подтверждено или отклонено другим запросом
+        ALREADY_REVIEWED,
+        // время пересекается с подтверждённым бронированием той же вещи
+        ITEM_BOOKED,
+        // бронирование удалено вместе с арендатором или владельцем вещи
+        DELETED
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Бронирования одного пользователя (арендатора или владельца), упорядоченные по времени
+ * от новых к старым. Каждое состояние читается лениво с нужного места индекса, страница
+ * отсекается на потоке, без копирования и пересортировки.
+ */
+class BookingTimeline {
+    static final Comparator<Booking> BY_START_DESC =
+            Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed();
+
+    private final NavigableSet<Booking> byStart = new ConcurrentSkipListSet<>(BY_START_DESC);
+    private final Map<BookingStatus, NavigableSet<Booking>> byStatus = new EnumMap<>(BookingStatus.class);
+    // самое длинное бронирование: текущие начались не раньше чем за столько секунд до текущего момента
+    private final AtomicLong longestSeconds = new AtomicLong();
+
+    BookingTimeline() {
+        for (BookingStatus status : BookingStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>(BY_START_DESC));
+        }
+    }
+
+    void add(Booking booking) {
+        long seconds = Duration.between(booking.getStart(), booking.getEnd()).getSeconds() + 1;
+        longestSeconds.accumulateAndGet(seconds, Math::max);
+        byStart.add(booking);
+        byStatus.get(booking.getStatus()).add(booking);
+    }
+
+    void remove(Booking booking) {
+        byStart.remove(booking);
+        byStatus.get(booking.getStatus()).remove(booking);
+    }
+
+    void changeStatus(Booking booking, BookingStatus oldStatus) {
+        byStatus.get(oldStatus).remove(booking);
+        byStatus.get(booking.getStatus()).add(booking);
+    }
+
+    Collection<Booking> all() {
+        return byStart;
+    }
+
+    List<Booking> find(BookingState state, LocalDateTime now, PageParams page) {
+        // начавшиеся к моменту now, от новых к старым
+        NavigableSet<Booking> started = byStart.tailSet(probe(now), false);
+        switch (state) {
+            case FUTURE:
+                return page(byStart.headSet(probe(now), false).stream(), page);
+            case PAST:
+                // до завершённых встречаются только текущие, их не больше, чем идёт одновременно
+                return page(started.stream().filter(booking -> !booking.getEnd().isAfter(now)), page);
+            case CURRENT:
+                LocalDateTime earliest = now.minusSeconds(longestSeconds.get());
+                return page(started.stream()
+                        .takeWhile(booking -> !booking.getStart().isBefore(earliest))
+                        .filter(booking -> booking.getEnd().isAfter(now)), page);
+            case WAITING:
+                return page(byStatus.get(BookingStatus.WAITING).stream(), page);
+            case REJECTED:
+                return page(byStatus.get(BookingStatus.REJECTED).stream(), page);
+            default:
+                return page(byStart.stream(), page);
+        }
+    }
+
+    private static List<Booking> page(Stream<Booking> bookings, PageParams page) {
+        return bookings.skip(page.getFrom()).limit(page.getSize()).collect(Collectors.toList());
+    }
+
+    private static Booking probe(LocalDateTime start) {
+        Booking probe = new Booking(start, start, null, null);
+        probe.setId(Long.MAX_VALUE);
+        return probe;
+    }
+}
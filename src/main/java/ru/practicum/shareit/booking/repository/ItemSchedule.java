@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Подтверждённые бронирования одной вещи. Интервалы в расписании не пересекаются, поэтому
+ * дерево по началу бронирования работает как дерево интервалов: пересечься с [start, end)
+ * может только бронирование с наибольшим началом раньше end, и проверка стоит O(log n).
+ */
+class ItemSchedule {
+    private final NavigableMap<LocalDateTime, Booking> approved = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    boolean isFree(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            return isFreeUnlocked(start, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean book(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            if (!isFreeUnlocked(booking.getStart(), booking.getEnd())) {
+                return false;
+            }
+            approved.put(booking.getStart(), booking);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void cancel(Booking booking) {
+        lock.writeLock().lock();
+        try {
+            approved.remove(booking.getStart(), booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFreeUnlocked(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> previous = approved.lowerEntry(end);
+        return previous == null || !previous.getValue().getEnd().isAfter(start);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.util.List;
+
+public interface BookingService {
+
+    BookingDto addBooking(long userId, BookingRequestDto bookingRequestDto);
+
+    BookingDto approveBooking(long userId, long bookingId, boolean approved);
+
+    BookingDto getBookingById(long userId, long bookingId);
+
+    List<BookingDto> getBookingsByBookerId(long userId, String state, PageParams page);
+
+    List<BookingDto> getBookingsByOwnerId(long userId, String state, PageParams page);
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class BookingServiceImpl implements BookingService {
+    private final BookingRepository bookingRepository;
+    private final RequestLoaders loaders;
+
+    @Override
+    public BookingDto addBooking(long userId, BookingRequestDto bookingRequestDto) {
+        User booker = loaders.users().load(userId);
+        isUserPresent(booker, userId);
+        Item item = loaders.items().load(bookingRequestDto.getItemId());
+        isItemPresent(item, bookingRequestDto.getItemId());
+        if (item.getOwner().getId() == userId) {
+            throw new NotFoundException("Владелец не может бронировать свою вещь с ИД " + item.getId() + ".");
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            throw new IllegalArgumentException("Вещь с ИД " + item.getId() + " недоступна для бронирования.");
+        }
+        if (!bookingRequestDto.getStart().isBefore(bookingRequestDto.getEnd())) {
+            throw new IllegalArgumentException("Начало бронирования должно быть раньше окончания.");
+        }
+        isItemFree(item.getId(), bookingRequestDto);
+        Booking booking = bookingRepository.addBooking(BookingMapper.toBooking(bookingRequestDto, item, booker));
+        log.info("Добавлено новое бронирование с ID = {}", booking.getId());
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    public BookingDto approveBooking(long userId, long bookingId, boolean approved) {
+        Booking booking = bookingRepository.getBookingById(bookingId);
+        isBookingPresent(booking, bookingId);
+        if (booking.getItem().getOwner().getId() != userId) {
+            throw new NotFoundException("Пользователь с ИД " + userId + " не является владельцем вещи с ИД "
+                    + booking.getItem().getId() + ".");
+        }
+        switch (bookingRepository.reviewBooking(booking, approved)) {
+            case ALREADY_REVIEWED ->
+                    throw new IllegalArgumentException("Бронирование с ИД " + bookingId + " уже рассмотрено.");
+            case ITEM_BOOKED -> throw new ValidationException("Вещь с ИД " + booking.getItem().getId()
+                    + " уже забронирована на это время.");
+            case DELETED -> throw new NotFoundException("Бронирование с ИД " + bookingId + " отсутствует в БД.");
+            case REVIEWED -> log.info("Бронирование с ID {} {}.", bookingId, approved ? "подтверждено" : "отклонено");
+        }
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    public BookingDto getBookingById(long userId, long bookingId) {
+        Booking booking = bookingRepository.getBookingById(bookingId);
+        isBookingPresent(booking, bookingId);
+        if (booking.getBooker().getId() != userId && booking.getItem().getOwner().getId() != userId) {
+            throw new NotFoundException("Бронирование с ИД " + bookingId + " недоступно пользователю с ИД "
+                    + userId + ".");
+        }
+        log.info("Бронирование с ID {} возвращено.", bookingId);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Override
+    public List<BookingDto> getBookingsByBookerId(long userId, String state, PageParams page) {
+        BookingState bookingState = BookingState.from(state);
+        isUserPresent(loaders.users().load(userId), userId);
+        List<Booking> bookings = bookingRepository.getBookingsByBookerId(userId, bookingState,
+                LocalDateTime.now(), page);
+        log.info("Бронирований пользователя с ид {} в состоянии {}: {} шт. Список возвращён.",
+                userId, bookingState, bookings.size());
+        return toBookingDtos(bookings);
+    }
+
+    @Override
+    public List<BookingDto> getBookingsByOwnerId(long userId, String state, PageParams page) {
+        BookingState bookingState = BookingState.from(state);
+        isUserPresent(loaders.users().load(userId), userId);
+        List<Booking> bookings = bookingRepository.getBookingsByOwnerId(userId, bookingState,
+                LocalDateTime.now(), page);
+        log.info("Бронирований вещей владельца с ид {} в состоянии {}: {} шт. Список возвращён.",
+                userId, bookingState, bookings.size());
+        return toBookingDtos(bookings);
+    }
+
+    /**
+     * Вещи и арендаторы всей страницы читаются двумя пакетными выборками, а не по бронированию.
+     * Удалённые за это время остаются в том виде, в каком записаны в бронировании.
+     */
+    private List<BookingDto> toBookingDtos(List<Booking> bookings) {
+        Map<Long, Item> items = loaders.items().loadAll(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .collect(Collectors.toList()));
+        Map<Long, User> bookers = loaders.users().loadAll(bookings.stream()
+                .map(booking -> booking.getBooker().getId())
+                .distinct()
+                .collect(Collectors.toList()));
+        return bookings.stream()
+                .map(booking -> BookingMapper.toBookingDto(booking,
+                        items.getOrDefault(booking.getItem().getId(), booking.getItem()),
+                        bookers.getOrDefault(booking.getBooker().getId(), booking.getBooker())))
+                .collect(Collectors.toList());
+    }
+
+    private void isItemFree(long itemId, BookingRequestDto bookingRequestDto) {
+        if (!bookingRepository.isItemAvailable(itemId, bookingRequestDto.getStart(), bookingRequestDto.getEnd())) {
+            throw new ValidationException("Вещь с ИД " + itemId + " уже забронирована на это время.");
+        }
+    }
+
+    private void isUserPresent(User user, Long id) {
+        if (user == null) {
+            throw new NotFoundException("Пользователь с ИД " + id + " отсутствует в БД.");
+        }
+    }
+
+    private void isItemPresent(Item item, Long id) {
+        if (item == null) {
+            throw new NotFoundException("Вещь с ИД " + id + " отсутствует в БД.");
+        }
+    }
+
+    private void isBookingPresent(Booking booking, Long id) {
+        if (booking == null) {
+            throw new NotFoundException("Бронирование с ИД " + id + " отсутствует в БД.");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.etag;
+
+import ru.practicum.shareit.pagination.PageParams;
+
+/**
+ * Сильные ETag из версий сущностей. Тег ответа берётся из версии, с которой тело построено
+ * (для отдельной сущности — из DTO, в том числе из кэша), чтобы тег никогда не оказался новее тела.
+ */
+public class EntityTag {
+
+    public static String of(String kind, long id, long version) {
+        return "\"" + kind + "-" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Тег страницы списка: разные страницы одной версии списка — разные тела, поэтому в тег входят
+     * разобранные параметры страницы, а не строка запроса.
+     */
+    public static String of(String kind, long id, long version, PageParams page) {
+        return "\"" + kind + "-" + id + "-" + version + "-" + page.getAfterId() + "." + page.getFrom() + "."
+                + page.getSize() + "\"";
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Доменное событие: номер в ленте, вид, ид и версия сущности после изменения, её представление
+ * для клиентов ({@code null} для удаления).
+ */
+public record DomainEvent(long sequence, DomainEventType type, long id, long version, Object data) {
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Виды доменных событий. Вещи удалённого пользователя удаляются вместе с ним,
+ * отдельных событий по ним нет.
+ */
+public enum DomainEventType {
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    ITEM_AVAILABILITY_CHANGED,
+    USER_UPDATED,
+    USER_DELETED
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Рассылка событий из {@link EventRing} подписчикам SSE. Каждый подписчик читает буфер в своём
+ * виртуальном потоке и отправляет все уже опубликованные события одной записью: медленный клиент
+ * задерживает только свой поток, пока не отстанет больше чем на размер буфера. Тогда он получает
+ * событие {@code EVICTED} с ид, с которого можно переподключиться после перечитывания состояния,
+ * и отключается.
+ */
+@Slf4j
+@Component
+public class EventFeed implements MeterBinder {
+    private static final int MAX_BATCH = 256;
+
+    private final EventRing ring;
+    private final long heartbeatNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public EventFeed(EventRing ring, @Value("${shareit.events.heartbeat}") Duration heartbeat) {
+        this.ring = ring;
+        this.heartbeatNanos = heartbeat.toNanos();
+    }
+
+    /**
+     * Подписка с события, следующего за {@code lastEventId} (ид вида {@code запуск-номер}),
+     * без него — с новых событий.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        long from = resumeFrom(lastEventId);
+        Subscriber subscriber = new Subscriber(new SseEmitter(0L));
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("shareit-events-" + from).unstarted(() -> pump(subscriber, from));
+        subscribers.add(subscriber);
+        subscriber.thread.start();
+        log.info("Новый подписчик на события, первый номер {}.", from);
+        return subscriber.emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.events.subscribers", subscribers, Set::size).register(registry);
+        FunctionCounter.builder("shareit.events.evicted", evicted, AtomicLong::get).register(registry);
+    }
+
+    private void pump(Subscriber subscriber, long from) {
+        long cursor = from;
+        long lastSent = System.nanoTime();
+        try {
+            if (cursor < 1) {
+                evict(subscriber);
+                return;
+            }
+            while (subscriber.open) {
+                DomainEvent event = ring.get(cursor);
+                if (event == null) {
+                    long idle = System.nanoTime() - lastSent;
+                    if (idle < heartbeatNanos) {
+                        ring.await(cursor, heartbeatNanos - idle);
+                        continue;
+                    }
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (event.sequence() != cursor) {
+                    evict(subscriber);
+                    return;
+                } else {
+                    Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+                    for (int i = 0; i < MAX_BATCH && event != null && event.sequence() == cursor; i++) {
+                        batch.addAll(SseEmitter.event()
+                                .id(eventId(cursor))
+                                .name(event.type().name())
+                                .data(event, MediaType.APPLICATION_JSON)
+                                .build());
+                        event = ring.get(++cursor);
+                    }
+                    subscriber.emitter.send(batch);
+                }
+                lastSent = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик на события отключился: {}", e.getMessage());
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) throws IOException {
+        evicted.incrementAndGet();
+        String resumeId = eventId(ring.head() - 1);
+        log.info("Подписчик на события отстал больше чем на {} событий и отключён, продолжить можно с {}.",
+                ring.capacity(), resumeId);
+        subscriber.emitter.send(SseEmitter.event().name("EVICTED").data(Map.of("lastEventId", resumeId),
+                MediaType.APPLICATION_JSON));
+        subscriber.emitter.complete();
+    }
+
+    // номер первого события для подписчика; 0 — ид из прошлого запуска, продолжить нельзя
+    private long resumeFrom(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return ring.head();
+        }
+        int separator = lastEventId.indexOf('-');
+        try {
+            long epoch = Long.parseLong(lastEventId.substring(0, Math.max(separator, 0)));
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            if (epoch != ring.epoch() || sequence < 0) {
+                return 0;
+            }
+            return Math.min(sequence + 1, ring.head());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный ид события: " + lastEventId);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return ring.epoch() + "-" + sequence;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile boolean open = true;
+        private Thread thread;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void close() {
+            open = false;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Кольцевой буфер доменных событий фиксированного размера. Публикация не блокируется: номер
+ * выдаётся атомарным счётчиком, событие кладётся в ячейку и будит ждущих читателей, самые старые
+ * события затираются. Читатели идут по номерам сами и не задерживают запись; отставшего больше
+ * чем на размер буфера читателя выдаёт событие с номером больше запрошенного.
+ */
+@Component
+public class EventRing implements MeterBinder {
+    private final AtomicReferenceArray<DomainEvent> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong(1);
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+    private final long epoch = System.currentTimeMillis();
+
+    public EventRing(@Value("${shareit.events.capacity}") int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера событий должен быть степенью двойки: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public DomainEvent publish(DomainEventType type, long id, long version, Object data) {
+        DomainEvent event = new DomainEvent(next.getAndIncrement(), type, id, version, data);
+        // издатели с номерами через круг могут записать ячейку в обратном порядке, старший номер не затирается
+        slots.accumulateAndGet(index(event.sequence()), event,
+                (current, candidate) -> current == null || current.sequence() < candidate.sequence()
+                        ? candidate : current);
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+        return event;
+    }
+
+    /**
+     * Событие с номером {@code sequence}; {@code null}, если оно ещё не опубликовано. Если событие
+     * уже затёрто, возвращается затёршее его, с большим номером.
+     */
+    public DomainEvent get(long sequence) {
+        DomainEvent event = slots.get(index(sequence));
+        return event == null || event.sequence() < sequence ? null : event;
+    }
+
+    /**
+     * Ждёт публикации события с номером {@code sequence} не дольше {@code timeoutNanos},
+     * может вернуться и раньше.
+     */
+    public void await(long sequence, long timeoutNanos) {
+        Thread thread = Thread.currentThread();
+        waiters.add(thread);
+        try {
+            if (get(sequence) == null) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            waiters.remove(thread);
+        }
+    }
+
+    /**
+     * Номер, который получит следующее событие.
+     */
+    public long head() {
+        return next.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Время запуска; номера событий начинаются заново при каждом запуске.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.events.published", next, sequence -> sequence.get() - 1).register(registry);
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.event.controller;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.event.EventFeed;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping(path = "/events")
+public class EventController {
+    private final EventFeed eventFeed;
+
+    /**
+     * Лента доменных событий (SSE). Продолжить с места разрыва можно заголовком {@code Last-Event-ID}
+     * или параметром {@code after} с ид последнего полученного события.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(required = false) String after) {
+        return eventFeed.subscribe(after != null ? after : lastEventId);
+    }
+}
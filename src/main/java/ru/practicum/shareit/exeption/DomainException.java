@@ -0,0 +1,25 @@
+package ru.practicum.shareit.exeption;
+
+import java.util.Map;
+
+/**
+ * Ожидаемая ошибка предметной области (нет объекта, конфликт). Стек не заполняется:
+ * место возникновения известно из сообщения, а заполнение стека — основная цена исключения.
+ * Тело ответа строится один раз, поэтому заранее созданный экземпляр можно бросать повторно.
+ */
+public abstract class DomainException extends RuntimeException {
+    private Map<String, String> body;
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    public Map<String, String> getBody() {
+        Map<String, String> result = body;
+        if (result == null) {
+            result = Map.of("errorMessage", String.valueOf(getMessage()));
+            body = result;
+        }
+        return result;
+    }
+}
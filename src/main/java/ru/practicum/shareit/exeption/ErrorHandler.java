@@ -1,37 +1,77 @@
 package ru.practicum.shareit.exeption;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @ControllerAdvice("ru.practicum.shareit")
 @RestControllerAdvice
+@AllArgsConstructor
 public class ErrorHandler {
+    private static final int LOG_PERMITS_PER_SECOND = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorLogSampler logSampler = new ErrorLogSampler(LOG_PERMITS_PER_SECOND);
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleNotValid(final ValidationException e) {
+        long skipped = logSampler.tryAcquire(e.getClass());
+        if (skipped >= 0) {
+            log.warn("Получен статус 409 CONFLICT. {} Пропущено похожих записей: {}.", e.getMessage(), skipped);
+        }
+        return errorResponse(HttpStatus.CONFLICT, e).body(e.getBody());
+    }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public Map<String, String> handleNotValid(final ValidationException e) {
-        log.error("Получен статус 409 CONFLICT. {}", e.getMessage(), e);
-        return Map.of("errorMessage", e.getMessage());
+    public ResponseEntity<Map<String, String>> handleNotFound(final NotFoundException e) {
+        long skipped = logSampler.tryAcquire(e.getClass());
+        if (skipped >= 0) {
+            log.warn("Получен статус 404 Not found. {} Пропущено похожих записей: {}.", e.getMessage(), skipped);
+        }
+        return errorResponse(HttpStatus.NOT_FOUND, e).body(e.getBody());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public Map<String, String> handleNotFound(final NotFoundException e) {
-        log.error("Получен статус 404 Not found. {}", e.getMessage(), e);
-        return Map.of("errorMessage", e.getMessage());
+    public ResponseEntity<Map<String, String>> handleTooManyRequests(final TooManyRequestsException e) {
+        long skipped = logSampler.tryAcquire(e.getClass());
+        if (skipped >= 0) {
+            log.warn("Получен статус 429 Too many requests. {} Пропущено похожих записей: {}.",
+                    e.getMessage(), skipped);
+        }
+        return errorResponse(HttpStatus.TOO_MANY_REQUESTS, e)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(e.getBody());
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public Map<String, String> handleAllException(final Exception e) {
-        log.error("Получен статус 400 BAD REQUEST. {}", e.getMessage(), e);
-        return Map.of("errorMessage", e.getMessage());
+    public ResponseEntity<Map<String, String>> handleAllException(final Exception e) {
+        long skipped = logSampler.tryAcquire(e.getClass());
+        if (skipped >= 0) {
+            log.error("Получен статус 400 BAD REQUEST. {} Пропущено похожих записей: {}.", e.getMessage(), skipped, e);
+        }
+        return errorResponse(HttpStatus.BAD_REQUEST, e).body(Map.of("errorMessage", String.valueOf(e.getMessage())));
+    }
+
+    // тело ошибки всегда JSON, даже если клиент запросил потоковую выгрузку
+    private ResponseEntity.BodyBuilder errorResponse(HttpStatus status, Exception e) {
+        errorCounters.computeIfAbsent(e.getClass(), type -> Counter.builder("shareit.errors")
+                .tag("exception", type.getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)).increment();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON);
     }
 }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.exeption;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничивает запись однотипных ошибок в лог: не больше заданного числа в секунду на тип исключения.
+ * Пропущенные записи подсчитываются и сообщаются вместе со следующей записанной.
+ */
+class ErrorLogSampler {
+    private static final long SUPPRESSED = -1;
+
+    private final int permitsPerSecond;
+    private final Map<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    ErrorLogSampler(int permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * @return число пропущенных с прошлой записи или отрицательное значение, если писать не нужно
+     */
+    long tryAcquire(Class<?> type) {
+        Window window = windows.get(type);
+        if (window == null) {
+            window = windows.computeIfAbsent(type, key -> new Window());
+        }
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = window.second.get();
+        if (current != second && window.second.compareAndSet(current, second)) {
+            window.used.set(0);
+        }
+        if (window.used.incrementAndGet() > permitsPerSecond) {
+            window.suppressed.incrementAndGet();
+            return SUPPRESSED;
+        }
+        return window.suppressed.getAndSet(0);
+    }
+
+    private static class Window {
+        private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger used = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
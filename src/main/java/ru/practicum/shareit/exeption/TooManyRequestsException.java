@@ -0,0 +1,17 @@
+package ru.practicum.shareit.exeption;
+
+/**
+ * Запрос отклонён контролем допуска; клиенту стоит повторить его не раньше чем через {@code retryAfterSeconds}.
+ */
+public class TooManyRequestsException extends DomainException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
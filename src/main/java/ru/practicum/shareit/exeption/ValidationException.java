@@ -1,7 +1,7 @@
 package ru.practicum.shareit.exeption;
 
-public class ValidationException extends RuntimeException {
+public class ValidationException extends DomainException {
     public ValidationException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Пишет объекты в ответ построчно (NDJSON) по мере их получения от источника,
+ * не собирая весь список в памяти. Поток открывается на первом объекте: если источник
+ * завершился ошибкой раньше (например, не найден владелец), ответ ещё не начат и
+ * обработчик ошибок отдаёт обычный статус с телом ошибки.
+ */
+@Component
+@AllArgsConstructor
+public class NdjsonResponseWriter {
+    private final ObjectMapper objectMapper;
+
+    public <T> StreamingResponseBody write(Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            SequenceWriter[] writer = new SequenceWriter[1];
+            try {
+                source.accept(value -> {
+                    try {
+                        if (writer[0] == null) {
+                            writer[0] = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream);
+                        }
+                        writer[0].write(value);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                if (writer[0] != null) {
+                    writer[0].close();
+                }
+            }
+        };
+    }
+}
@@ -1,12 +1,27 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.export.NdjsonResponseWriter;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.PageResponse;
+import ru.practicum.shareit.patch.MergePatch;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -17,7 +32,10 @@ import java.util.List;
 @AllArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
     private final ItemService itemService;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -25,27 +43,81 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
-    @PatchMapping("/{id}")
-    public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                              @RequestBody ItemDto itemDto,
-                              @PathVariable @Positive long id) {
-        itemDto.setId(id);
-        return itemService.updateItem(userId, itemDto);
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemBatchResultDto createItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          HttpServletRequest request) throws IOException {
+        return itemService.addItems(userId, request.getInputStream());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MergePatch.MEDIA_TYPE})
+    public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestBody ItemPatchDto patch,
+                                              @PathVariable @Positive long id,
+                                              @RequestHeader(value = MergePatch.PREFER_HEADER, required = false)
+                                              String prefer) {
+        boolean minimal = MergePatch.isMinimal(prefer);
+        return MergePatch.response(itemService.updateItem(userId, id, patch, !minimal), minimal);
     }
 
 
+    /**
+     * Версия берётся из DTO в кэше: повторный условный GET не обращается к хранилищу.
+     */
     @GetMapping("/{id}")
-    public ItemDto getItemById(@PathVariable @Positive long id) {
-        return itemService.getItemById(id);
+    public ResponseEntity<ItemDto> getItemById(@PathVariable @Positive long id, WebRequest request) {
+        ItemDto item = itemService.getItemById(id);
+        String etag = EntityTag.of("item", id, item.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(item);
     }
 
+    /**
+     * Тег списка строится из версии, прочитанной до списка, поэтому он может быть только
+     * старше тела: в худшем случае следующий опрос получит список целиком ещё раз.
+     */
     @GetMapping
-    public List<ItemDto> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemService.getAllItemsByUserId(userId);
+    public ResponseEntity<List<ItemDto>> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                             @RequestParam(required = false) @Positive Integer size,
+                                                             @RequestParam(required = false) String cursor,
+                                                             WebRequest request) {
+        PageParams page = PageParams.of(from, size, cursor);
+        String etag = EntityTag.of("items", userId, itemService.getItemsVersionByUserId(userId), page);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return PageResponse.of(itemService.getAllItemsByUserId(userId, page), page, ItemDto::getId, etag);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId) {
+        return ndjsonResponseWriter.<ItemDto>write(consumer -> itemService.exportAllItemsByUserId(userId, consumer));
+    }
+
+    /**
+     * С параметром {@code limit} возвращает лучшие по релевантности вещи вместо страницы по ИД.
+     */
     @GetMapping("/search")
-    public List<ItemDto> getItemsBySearch(@RequestParam String text) {
-        return itemService.getItemsBySearch(text);
+    public ResponseEntity<List<ItemDto>> getItemsBySearch(@RequestParam String text,
+                                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                          @RequestParam(required = false) @Positive Integer size,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) @Positive
+                                                          @Max(MAX_SEARCH_LIMIT) Integer limit) {
+        if (limit != null) {
+            if (from != 0 || size != null || cursor != null) {
+                throw new IllegalArgumentException("Параметр limit несовместим с постраничным выводом.");
+            }
+            return ResponseEntity.ok(itemService.getTopItemsBySearch(text, limit));
+        }
+        PageParams page = PageParams.of(from, size, cursor);
+        return PageResponse.of(itemService.getItemsBySearch(text, page), page, ItemDto::getId);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportItemsBySearch(@RequestParam String text) {
+        return ndjsonResponseWriter.<ItemDto>write(consumer -> itemService.exportItemsBySearch(text, consumer));
     }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+@Data
+public class ItemBatchErrorDto {
+    private final int row;
+    private final String errorMessage;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemBatchResultDto {
+    private int created;
+    private final List<ItemBatchErrorDto> errors = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -12,4 +13,6 @@ public class ItemDto {
     private final String description;
     private final Boolean available;
     private final Long request;
+    @JsonIgnore
+    private long version;
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.ItemField;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Частичное обновление вещи: запоминает, какие поля пришли в теле, в том числе со значением null.
+ */
+@Getter
+@ToString
+public class ItemPatchDto {
+    private String name;
+    private String description;
+    private Boolean available;
+    @JsonIgnore
+    private final Set<ItemField> present = EnumSet.noneOf(ItemField.class);
+
+    @JsonSetter("name")
+    public void setName(String name) {
+        this.name = name;
+        present.add(ItemField.NAME);
+    }
+
+    @JsonSetter("description")
+    public void setDescription(String description) {
+        this.description = description;
+        present.add(ItemField.DESCRIPTION);
+    }
+
+    @JsonSetter("available")
+    public void setAvailable(Boolean available) {
+        this.available = available;
+        present.add(ItemField.AVAILABLE);
+    }
+
+    public boolean has(ItemField field) {
+        return present.contains(field);
+    }
+}
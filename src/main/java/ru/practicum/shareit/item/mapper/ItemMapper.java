@@ -1,26 +1,71 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.patch.MergePatch;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 public class ItemMapper {
 
+    /**
+     * Версия читается раньше полей: хранилище записывает её последней, поэтому тег из версии
+     * DTO никогда не новее его тела.
+     */
     public static ItemDto toItemDto(Item item) {
+        long version = item.getVersion();
         ItemDto itemDto = new ItemDto(
                 item.getName(),
                 item.getDescription(),
                 item.getAvailable(),
-                item.getRequest() != null ? item.getRequest().getId() : null
+                item.getRequestId()
         );
         itemDto.setId(item.getId());
+        itemDto.setVersion(version);
         return itemDto;
     }
 
     public static Item toItem(ItemDto itemDto) {
-        return new Item(
+        Item item = new Item(
                 itemDto.getName(),
                 itemDto.getDescription(),
                 itemDto.getAvailable()
         );
+        item.setRequestId(itemDto.getRequest());
+        return item;
+    }
+
+    /**
+     * Переносит в вещь пришедшие поля патча и возвращает те, что действительно изменились.
+     * Все поля вещи обязательны, поэтому null в патче отклоняется до любых изменений.
+     */
+    public static Set<ItemField> applyPatch(Item item, ItemPatchDto patch) {
+        if (patch.has(ItemField.NAME) && patch.getName() == null) {
+            throw MergePatch.fieldRemoved("name");
+        }
+        if (patch.has(ItemField.DESCRIPTION) && patch.getDescription() == null) {
+            throw MergePatch.fieldRemoved("description");
+        }
+        if (patch.has(ItemField.AVAILABLE) && patch.getAvailable() == null) {
+            throw MergePatch.fieldRemoved("available");
+        }
+        Set<ItemField> changed = EnumSet.noneOf(ItemField.class);
+        if (patch.has(ItemField.NAME) && !patch.getName().equals(item.getName())) {
+            item.setName(patch.getName());
+            changed.add(ItemField.NAME);
+        }
+        if (patch.has(ItemField.DESCRIPTION) && !patch.getDescription().equals(item.getDescription())) {
+            item.setDescription(patch.getDescription());
+            changed.add(ItemField.DESCRIPTION);
+        }
+        if (patch.has(ItemField.AVAILABLE) && !Objects.equals(patch.getAvailable(), item.getAvailable())) {
+            item.setAvailable(patch.getAvailable());
+            changed.add(ItemField.AVAILABLE);
+        }
+        return changed;
     }
-}
\ No newline at end of file
+}
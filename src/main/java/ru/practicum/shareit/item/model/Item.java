@@ -1,7 +1,6 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.Data;
-import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 /**
@@ -14,11 +13,24 @@ public class Item {
     private String description;
     private Boolean available;
     private User owner;
-    private ItemRequest request;
+    private Long requestId;
+    // растёт с каждым изменением вещи, из него строится ETag; хранилище записывает её после полей
+    private volatile long version;
 
     public Item(String name, String description, Boolean available) {
         this.name = name;
         this.description = description;
         this.available = available;
     }
+
+    /**
+     * Отдельная копия вещи с тем же владельцем: на ней сервис готовит новое состояние.
+     */
+    public Item(Item item) {
+        this(item.getName(), item.getDescription(), item.getAvailable());
+        this.version = item.getVersion();
+        this.id = item.getId();
+        this.owner = item.getOwner();
+        this.requestId = item.getRequestId();
+    }
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * Изменяемые поля вещи: какие присутствуют в частичном обновлении и какие реально изменились.
+ */
+public enum ItemField {
+    NAME,
+    DESCRIPTION,
+    AVAILABLE
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Arrays;
+
+/**
+ * Оценка BM25F по названию и описанию. Термины — слова запроса, вхождение ищется по подстроке,
+ * как и в обычном поиске. Частота в каждом поле нормируется длиной поля относительно средней,
+ * поля складываются с весами (название весомее описания), затем насыщение k1 и умножение на idf.
+ */
+final class Bm25 {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final String[] terms;
+    private final double[] idf;
+    private final double averageName;
+    private final double averageDescription;
+    private final String rarestTerm;
+
+    /**
+     * @param documentFrequencies число документов с каждым термином (допустима оценка сверху)
+     */
+    Bm25(String[] terms, long[] documentFrequencies, long documents, double averageName,
+         double averageDescription) {
+        this.terms = terms;
+        this.idf = new double[terms.length];
+        int rarest = 0;
+        for (int i = 0; i < terms.length; i++) {
+            rarest = documentFrequencies[i] < documentFrequencies[rarest] ? i : rarest;
+            double frequency = Math.min(documentFrequencies[i], documents);
+            idf[i] = Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+        }
+        this.averageName = Math.max(averageName, 1);
+        this.averageDescription = Math.max(averageDescription, 1);
+        this.rarestTerm = terms[rarest];
+    }
+
+    static String[] terms(String text) {
+        String trimmed = text.toLowerCase().trim();
+        if (trimmed.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(trimmed.split("\\s+")).distinct().toArray(String[]::new);
+    }
+
+    /**
+     * Термин с наименьшим числом документов: достаточно перебрать только его кандидатов.
+     */
+    String rarestTerm() {
+        return rarestTerm;
+    }
+
+    /**
+     * Оценка по текстам в нижнем регистре или отрицательное число, если документ содержит не все термины.
+     */
+    double score(String name, String description) {
+        double score = 0;
+        double nameNorm = 1 - B + B * name.length() / averageName;
+        double descriptionNorm = 1 - B + B * description.length() / averageDescription;
+        for (int i = 0; i < terms.length; i++) {
+            int inName = occurrences(name, terms[i]);
+            int inDescription = occurrences(description, terms[i]);
+            if (inName == 0 && inDescription == 0) {
+                return -1;
+            }
+            double frequency = NAME_WEIGHT * inName / nameNorm + DESCRIPTION_WEIGHT * inDescription / descriptionNorm;
+            score += idf[i] * frequency * (K1 + 1) / (frequency + K1);
+        }
+        return score;
+    }
+
+    private static int occurrences(String text, String term) {
+        int count = 0;
+        for (int from = text.indexOf(term); from >= 0; from = text.indexOf(term, from + term.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Тот же n-граммный индекс, что {@link ItemSearchIndex}, но списки хранят номера строк
+ * в отсортированных массивах int без упаковки и без хранения текстов: кандидаты длинного запроса
+ * проверяет вызывающий по своим столбцам. Потокобезопасность обеспечивает хранилище.
+ */
+class CompactSearchIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private final Map<String, RowList> postings = new HashMap<>();
+    private long documents;
+    private long nameChars;
+    private long descriptionChars;
+
+    void add(int row, String name, String description) {
+        for (String gram : ItemSearchIndex.grams(lowerCase(name, description))) {
+            postings.computeIfAbsent(gram, key -> new RowList()).insert(row);
+        }
+        documents++;
+        nameChars += name.length();
+        descriptionChars += description.length();
+    }
+
+    void remove(int row, String name, String description) {
+        for (String gram : ItemSearchIndex.grams(lowerCase(name, description))) {
+            RowList rows = postings.get(gram);
+            if (rows != null && rows.remove(row) && rows.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+        documents--;
+        nameChars -= name.length();
+        descriptionChars -= description.length();
+    }
+
+    int grams() {
+        return postings.size();
+    }
+
+    /**
+     * Оценщик BM25 для терминов или null, если какого-то термина нет ни в одной вещи.
+     */
+    Bm25 scorer(String[] terms) {
+        long[] frequencies = new long[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            frequencies[i] = documentFrequency(terms[i]);
+            if (frequencies[i] == 0) {
+                return null;
+            }
+        }
+        return new Bm25(terms, frequencies, documents, (double) nameChars / documents,
+                (double) descriptionChars / documents);
+    }
+
+    /**
+     * Передаёт строки-кандидаты не меньше {@code fromRow} по возрастанию, пока получатель
+     * возвращает true. Для запроса длиннее трёх символов кандидат содержит все его триграммы,
+     * но сам текст нужно проверить.
+     */
+    void search(String text, int fromRow, IntPredicate visitor) {
+        if (text.length() <= GRAM_SIZE) {
+            RowList rows = postings.get(text);
+            if (rows != null) {
+                for (int i = rows.lowerBound(fromRow); i < rows.size() && visitor.test(rows.get(i)); i++) {
+                    continue;
+                }
+            }
+            return;
+        }
+        List<RowList> lists = new ArrayList<>();
+        for (String gram : ItemSearchIndex.queryGrams(text)) {
+            RowList rows = postings.get(gram);
+            if (rows == null) {
+                return;
+            }
+            lists.add(rows);
+        }
+        lists.sort(Comparator.comparingInt(RowList::size));
+        RowList smallest = lists.get(0);
+        for (int i = smallest.lowerBound(fromRow); i < smallest.size(); i++) {
+            int row = smallest.get(i);
+            if (containsInAll(lists, row) && !visitor.test(row)) {
+                return;
+            }
+        }
+    }
+
+    private long documentFrequency(String term) {
+        if (term.length() <= GRAM_SIZE) {
+            RowList rows = postings.get(term);
+            return rows == null ? 0 : rows.size();
+        }
+        long frequency = Long.MAX_VALUE;
+        for (String gram : ItemSearchIndex.queryGrams(term)) {
+            RowList rows = postings.get(gram);
+            frequency = Math.min(frequency, rows == null ? 0 : rows.size());
+        }
+        return frequency;
+    }
+
+    private static boolean containsInAll(List<RowList> lists, int row) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] lowerCase(String name, String description) {
+        return new String[]{name.toLowerCase(), description.toLowerCase()};
+    }
+}
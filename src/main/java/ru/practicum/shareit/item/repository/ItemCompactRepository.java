@@ -0,0 +1,441 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Вещи по столбцам: строка таблицы — ИД минус один. Владелец хранится числом, списки вещей
+ * владельца и поисковый индекс — отсортированными массивами номеров строк, одинаковые названия
+ * делят одну строку. Объекты {@link Item} создаются только при чтении, а владельцы всей выборки
+ * загружаются одним вызовом хранилища пользователей уже после снятия блокировки.
+ */
+@Repository
+@Profile("compact & !jdbc")
+@Timed("shareit.repository")
+public class ItemCompactRepository implements ItemRepository, MeterBinder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EXPORT_CHUNK = 1000;
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet alive = new BitSet();
+    private final BitSet available = new BitSet();
+    // удалённые владельцы по строке владельца: добавление, проигравшее гонку с удалением, отклоняется
+    private final BitSet deletedOwners = new BitSet();
+    private final Map<String, String> namePool = new HashMap<>();
+    private final CompactSearchIndex searchIndex = new CompactSearchIndex();
+    private final Map<Long, RowList> requestRows = new HashMap<>();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private long[] owners = new long[INITIAL_CAPACITY];
+    // ИД запроса, на который ответила вещь, ноль — без запроса
+    private long[] requests = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int rows;
+    private int count;
+    // строки вещей по строке владельца (ИД владельца минус один); длина списка — в ownerRowCounts
+    private int[][] ownerRows = new int[INITIAL_CAPACITY][];
+    private int[] ownerRowCounts = new int[INITIAL_CAPACITY];
+    // версия списка вещей по строке владельца, см. ItemRepository#getItemsVersionByUserId
+    private long[] ownerVersions = new long[INITIAL_CAPACITY];
+    private int owningUsers;
+
+    public ItemCompactRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Item addItem(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (deletedOwners.get((int) (item.getOwner().getId() - 1))) {
+                return null;
+            }
+            insert(item);
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> addItems(List<Item> items) {
+        lock.writeLock().lock();
+        try {
+            List<Item> added = new ArrayList<>(items.size());
+            for (Item item : items) {
+                if (!deletedOwners.get((int) (item.getOwner().getId() - 1))) {
+                    insert(item);
+                    added.add(item);
+                }
+            }
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateItem(Item item, Set<ItemField> changed) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(item.getId());
+            if (row < 0 || versions[row] != item.getVersion()) {
+                return false;
+            }
+            boolean textChanged = changed.contains(ItemField.NAME) || changed.contains(ItemField.DESCRIPTION);
+            boolean wasIndexed = available.get(row);
+            boolean indexed = Boolean.TRUE.equals(item.getAvailable());
+            if (wasIndexed && (textChanged || !indexed)) {
+                searchIndex.remove(row, names[row], descriptions[row]);
+            }
+            if (changed.contains(ItemField.NAME)) {
+                names[row] = pooledName(item.getName());
+            }
+            if (changed.contains(ItemField.DESCRIPTION)) {
+                descriptions[row] = item.getDescription();
+            }
+            available.set(row, indexed);
+            if (indexed && (textChanged || !wasIndexed)) {
+                searchIndex.add(row, names[row], descriptions[row]);
+            }
+            ownerVersions[(int) (owners[row] - 1)]++;
+            versions[row]++;
+            item.setVersion(versions[row]);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Item getItemById(Long id) {
+        List<Item> items = getItemsByIds(List.of(id));
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    @Override
+    public List<Item> getItemsByIds(Collection<Long> ids) {
+        List<Item> result = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                int row = rowOf(id);
+                if (row >= 0) {
+                    result.add(toItem(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withOwners(result);
+    }
+
+    @Override
+    public List<Item> getAllItemsByUserId(long userId, PageParams page) {
+        List<Item> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int ownerRow = ownerRowOf(userId);
+            if (ownerRow < 0) {
+                return result;
+            }
+            int[] itemRows = ownerRows[ownerRow];
+            int size = ownerRowCounts[ownerRow];
+            int index = Arrays.binarySearch(itemRows, 0, size, firstRowAfter(page.getAfterId()));
+            for (int i = (index >= 0 ? index : -index - 1) + page.getFrom();
+                 i < size && result.size() < page.getSize(); i++) {
+                result.add(toItem(itemRows[i]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withOwners(result);
+    }
+
+    @Override
+    public long getItemsVersionByUserId(long userId) {
+        lock.readLock().lock();
+        try {
+            int ownerRow = ownerRowOf(userId);
+            return ownerRow < 0 ? 0 : ownerVersions[ownerRow];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachItemByUserId(long userId, Consumer<Item> action) {
+        long afterId = 0;
+        List<Item> chunk;
+        do {
+            chunk = getAllItemsByUserId(userId, new PageParams(afterId, 0, EXPORT_CHUNK));
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK);
+    }
+
+    @Override
+    public void deleteAllItemsByUserId(long userId) {
+        lock.writeLock().lock();
+        try {
+            deletedOwners.set((int) (userId - 1));
+            int ownerRow = ownerRowOf(userId);
+            if (ownerRow < 0) {
+                return;
+            }
+            int[] itemRows = ownerRows[ownerRow];
+            for (int i = 0; i < ownerRowCounts[ownerRow]; i++) {
+                int row = itemRows[i];
+                if (available.get(row)) {
+                    searchIndex.remove(row, names[row], descriptions[row]);
+                }
+                if (requests[row] != 0) {
+                    RowList answers = requestRows.get(requests[row]);
+                    if (answers.remove(row) && answers.size() == 0) {
+                        requestRows.remove(requests[row]);
+                    }
+                    requests[row] = 0;
+                }
+                alive.clear(row);
+                available.clear(row);
+                names[row] = null;
+                descriptions[row] = null;
+                count--;
+            }
+            ownerRows[ownerRow] = null;
+            ownerRowCounts[ownerRow] = 0;
+            ownerVersions[ownerRow] = 0;
+            owningUsers--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> getItemsByRequestIds(Collection<Long> requestIds) {
+        List<Item> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long requestId : requestIds) {
+                RowList answers = requestRows.get(requestId);
+                for (int i = 0; answers != null && i < answers.size(); i++) {
+                    result.add(toItem(answers.get(i)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withOwners(result);
+    }
+
+    @Override
+    public List<Item> getItemsBySearch(String text, PageParams page) {
+        List<Item> result = new ArrayList<>();
+        if (text.isBlank()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            int[] skip = {page.getFrom()};
+            searchIndex.search(text, firstRowAfter(page.getAfterId()), row -> {
+                if (!matches(row, text)) {
+                    return true;
+                }
+                if (skip[0] > 0) {
+                    skip[0]--;
+                    return true;
+                }
+                result.add(toItem(row));
+                return result.size() < page.getSize();
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withOwners(result);
+    }
+
+    @Override
+    public void forEachItemBySearch(String text, Consumer<Item> action) {
+        long afterId = 0;
+        List<Item> chunk;
+        do {
+            chunk = getItemsBySearch(text, new PageParams(afterId, 0, EXPORT_CHUNK));
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK);
+    }
+
+    @Override
+    public List<Item> getTopItemsBySearch(String text, int limit) {
+        List<Item> result = new ArrayList<>();
+        String[] terms = Bm25.terms(text);
+        if (terms.length == 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Bm25 bm25 = searchIndex.scorer(terms);
+            if (bm25 == null) {
+                return result;
+            }
+            TopK top = new TopK(limit);
+            searchIndex.search(bm25.rarestTerm(), 0, row -> {
+                double score = bm25.score(names[row].toLowerCase(), descriptions[row].toLowerCase());
+                if (score >= 0) {
+                    top.offer(row, score);
+                }
+                return true;
+            });
+            for (long row : top.ids()) {
+                result.add(toItem((int) row));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withOwners(result);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.items.count", this, repository -> repository.count).register(registry);
+        Gauge.builder("shareit.items.owners", this, repository -> repository.owningUsers).register(registry);
+        Gauge.builder("shareit.search.index.items", this, repository -> repository.available.cardinality())
+                .register(registry);
+        Gauge.builder("shareit.search.index.grams", searchIndex, CompactSearchIndex::grams).register(registry);
+    }
+
+    private void insert(Item item) {
+        if (rows == names.length) {
+            names = Arrays.copyOf(names, rows * 2);
+            descriptions = Arrays.copyOf(descriptions, rows * 2);
+            owners = Arrays.copyOf(owners, rows * 2);
+            requests = Arrays.copyOf(requests, rows * 2);
+            versions = Arrays.copyOf(versions, rows * 2);
+        }
+        int row = rows++;
+        names[row] = pooledName(item.getName());
+        descriptions[row] = item.getDescription();
+        owners[row] = item.getOwner().getId();
+        versions[row] = item.getVersion();
+        if (item.getRequestId() != null) {
+            requests[row] = item.getRequestId();
+            requestRows.computeIfAbsent(item.getRequestId(), key -> new RowList()).insert(row);
+        }
+        alive.set(row);
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            available.set(row);
+            searchIndex.add(row, names[row], descriptions[row]);
+        }
+        addOwnerRow((int) (owners[row] - 1), row);
+        count++;
+        item.setId(row + 1L);
+    }
+
+    private void addOwnerRow(int ownerRow, int row) {
+        if (ownerRow >= ownerRows.length) {
+            int length = Math.max(ownerRow + 1, ownerRows.length * 2);
+            ownerRows = Arrays.copyOf(ownerRows, length);
+            ownerRowCounts = Arrays.copyOf(ownerRowCounts, length);
+            ownerVersions = Arrays.copyOf(ownerVersions, length);
+        }
+        int[] itemRows = ownerRows[ownerRow];
+        int size = ownerRowCounts[ownerRow];
+        if (itemRows == null) {
+            itemRows = new int[4];
+            owningUsers++;
+        } else if (size == itemRows.length) {
+            itemRows = Arrays.copyOf(itemRows, size * 2);
+        }
+        itemRows[size] = row;
+        ownerRows[ownerRow] = itemRows;
+        ownerRowCounts[ownerRow] = size + 1;
+        ownerVersions[ownerRow] += versions[row] + 1;
+    }
+
+    private String pooledName(String name) {
+        return namePool.computeIfAbsent(name, key -> key);
+    }
+
+    private boolean matches(int row, String text) {
+        return names[row].toLowerCase().contains(text) || descriptions[row].toLowerCase().contains(text);
+    }
+
+    private int rowOf(Long id) {
+        if (id == null || id < 1 || id > rows) {
+            return -1;
+        }
+        int row = (int) (id - 1);
+        return alive.get(row) ? row : -1;
+    }
+
+    private int ownerRowOf(long userId) {
+        if (userId < 1 || userId > ownerRows.length) {
+            return -1;
+        }
+        int ownerRow = (int) (userId - 1);
+        return ownerRows[ownerRow] == null ? -1 : ownerRow;
+    }
+
+    private static int firstRowAfter(long afterId) {
+        return (int) Math.min(Math.max(afterId, 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Вещь строки с заглушкой владельца, у которой заполнен только ИД, см. {@link #withOwners}.
+     */
+    private Item toItem(int row) {
+        Item item = new Item(names[row], descriptions[row], available.get(row));
+        item.setId(row + 1L);
+        User owner = new User(null, null);
+        owner.setId(owners[row]);
+        item.setOwner(owner);
+        item.setRequestId(requests[row] == 0 ? null : requests[row]);
+        item.setVersion(versions[row]);
+        return item;
+    }
+
+    private List<Item> withOwners(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        Set<Long> ownerIds = new HashSet<>();
+        for (Item item : items) {
+            ownerIds.add(item.getOwner().getId());
+        }
+        Map<Long, User> found = new HashMap<>();
+        for (User owner : userRepository.getUsersByIds(ownerIds)) {
+            found.put(owner.getId(), owner);
+        }
+        for (Item item : items) {
+            item.setOwner(found.get(item.getOwner().getId()));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,335 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("jdbc")
+@AllArgsConstructor
+@Timed("shareit.repository")
+public class ItemJdbcRepository implements ItemRepository, MeterBinder {
+    private static final String INSERT =
+            "INSERT INTO items (name, description, available, owner_id, request_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT i.id, i.name, i.description, i.available, i.request_id, i.version, "
+            + "u.id AS owner_id, u.name AS owner_name, u.email AS owner_email "
+            + "FROM items i JOIN users u ON u.id = i.owner_id ";
+    private static final String SELECT_BY_ID = SELECT + "WHERE i.id = ?";
+    private static final String SELECT_BY_OWNER =
+            SELECT + "WHERE i.owner_id = ? AND i.id > ? ORDER BY i.id LIMIT ? OFFSET ?";
+    private static final String SELECT_BY_SEARCH = SELECT
+            + "WHERE i.available AND (LOWER(i.name) LIKE ? ESCAPE '\\' OR LOWER(i.description) LIKE ? ESCAPE '\\') "
+            + "AND i.id > ? ORDER BY i.id LIMIT ? OFFSET ?";
+    private static final String SELECT_BY_REQUESTS = SELECT + "WHERE i.request_id IN (%s) ORDER BY i.id";
+    private static final String SELECT_BY_IDS = SELECT + "WHERE i.id IN (%s)";
+    private static final String OWNER_ITEMS_VERSION =
+            "SELECT COUNT(*) + COALESCE(SUM(version), 0) FROM items WHERE owner_id = ?";
+    private static final String TERM_CONDITION =
+            "(LOWER(name) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\')";
+    private static final String SEARCH_STATS = "SELECT COUNT(*), AVG(LENGTH(name)), AVG(LENGTH(description))%s "
+            + "FROM items WHERE available";
+    private static final String TERM_FREQUENCY = ", SUM(CASE WHEN " + TERM_CONDITION + " THEN 1 ELSE 0 END)";
+    private static final String SELECT_TEXTS_BY_TERMS =
+            "SELECT id, LOWER(name) AS name, LOWER(description) AS description FROM items WHERE available%s";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String COUNT = "SELECT COUNT(*) FROM items";
+    private static final String DELETE_BY_OWNER = "DELETE FROM items WHERE owner_id = ?";
+    private static final String OWNER_EXISTS = "SELECT COUNT(*) FROM users WHERE id = ?";
+
+    private static final RowMapper<Item> ITEM_ROW_MAPPER = (rs, rowNum) -> {
+        User owner = new User(rs.getString("owner_name"), rs.getString("owner_email"));
+        owner.setId(rs.getLong("owner_id"));
+        Item item = new Item(rs.getString("name"), rs.getString("description"), rs.getBoolean("available"));
+        item.setId(rs.getLong("id"));
+        item.setOwner(owner);
+        item.setRequestId(rs.getObject("request_id", Long.class));
+        item.setVersion(rs.getLong("version"));
+        return item;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public Item addItem(Item item) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT, new String[]{"id"});
+                setInsertParameters(ps, item);
+                return ps;
+            }, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            if (ownerExists(item.getOwner().getId())) {
+                throw e;
+            }
+            return null;
+        }
+        item.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        return item;
+    }
+
+    @Override
+    public List<Item> addItems(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setInsertParameters(ps, items.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return items.size();
+                        }
+                    }, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            // пакет приходит от одного владельца; строки, вставленные до его удаления, удалены каскадом
+            if (items.stream().map(item -> item.getOwner().getId()).distinct().allMatch(this::ownerExists)) {
+                throw e;
+            }
+            return new ArrayList<>();
+        }
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+        return items;
+    }
+
+    @Override
+    public boolean updateItem(Item item, Set<ItemField> changed) {
+        // версия растёт в самой базе, а условие на прежнюю версию не даёт затереть параллельное изменение
+        StringJoiner update = new StringJoiner(", ", "UPDATE items SET ", " WHERE id = ? AND version = ?");
+        List<Object> args = new ArrayList<>();
+        update.add("version = version + 1");
+        if (changed.contains(ItemField.NAME)) {
+            update.add("name = ?");
+            args.add(item.getName());
+        }
+        if (changed.contains(ItemField.DESCRIPTION)) {
+            update.add("description = ?");
+            args.add(item.getDescription());
+        }
+        if (changed.contains(ItemField.AVAILABLE)) {
+            update.add("available = ?");
+            args.add(item.getAvailable());
+        }
+        args.add(item.getId());
+        args.add(item.getVersion());
+        if (jdbcTemplate.update(update.toString(), args.toArray()) == 0) {
+            return false;
+        }
+        item.setVersion(item.getVersion() + 1);
+        return true;
+    }
+
+    @Override
+    public Item getItemById(Long id) {
+        List<Item> items = jdbcTemplate.query(SELECT_BY_ID, ITEM_ROW_MAPPER, id);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    @Override
+    public List<Item> getItemsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(String.format(SELECT_BY_IDS, placeholders), ITEM_ROW_MAPPER, ids.toArray());
+    }
+
+    @Override
+    public List<Item> getAllItemsByUserId(long userId, PageParams page) {
+        return jdbcTemplate.query(SELECT_BY_OWNER, ITEM_ROW_MAPPER,
+                userId, page.getAfterId(), page.getSize(), page.getFrom());
+    }
+
+    @Override
+    public long getItemsVersionByUserId(long userId) {
+        return jdbcTemplate.queryForObject(OWNER_ITEMS_VERSION, Long.class, userId);
+    }
+
+    @Override
+    public void forEachItemByUserId(long userId, Consumer<Item> action) {
+        stream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BY_OWNER);
+            ps.setLong(1, userId);
+            setPage(ps, 2, PageParams.ALL);
+            return ps;
+        }, action);
+    }
+
+    @Override
+    public void deleteAllItemsByUserId(long userId) {
+        jdbcTemplate.update(DELETE_BY_OWNER, userId);
+    }
+
+    @Override
+    public List<Item> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(requestIds.size(), "?"));
+        return jdbcTemplate.query(String.format(SELECT_BY_REQUESTS, placeholders), ITEM_ROW_MAPPER,
+                requestIds.toArray());
+    }
+
+    @Override
+    public List<Item> getItemsBySearch(String text, PageParams page) {
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+        String pattern = "%" + escapeLike(text) + "%";
+        return jdbcTemplate.query(SELECT_BY_SEARCH, ITEM_ROW_MAPPER,
+                pattern, pattern, page.getAfterId(), page.getSize(), page.getFrom());
+    }
+
+    @Override
+    public void forEachItemBySearch(String text, Consumer<Item> action) {
+        if (text.isBlank()) {
+            return;
+        }
+        String pattern = "%" + escapeLike(text) + "%";
+        stream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BY_SEARCH);
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+            setPage(ps, 3, PageParams.ALL);
+            return ps;
+        }, action);
+    }
+
+    /**
+     * Оценка считается на стороне приложения. Число вещей, средние длины полей и частоты всех
+     * терминов собираются одним агрегирующим запросом, затем по курсору читаются только ИД и тексты
+     * вещей со всеми терминами, а полностью загружаются лишь отобранные.
+     */
+    @Override
+    public List<Item> getTopItemsBySearch(String text, int limit) {
+        String[] terms = Bm25.terms(text);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        Object[] patterns = new Object[terms.length * 2];
+        for (int i = 0; i < terms.length; i++) {
+            String pattern = "%" + escapeLike(terms[i]) + "%";
+            patterns[2 * i] = pattern;
+            patterns[2 * i + 1] = pattern;
+        }
+        Bm25 bm25 = jdbcTemplate.queryForObject(SEARCH_STATS.formatted(TERM_FREQUENCY.repeat(terms.length)),
+                (rs, rowNum) -> {
+                    long[] frequencies = new long[terms.length];
+                    for (int i = 0; i < terms.length; i++) {
+                        frequencies[i] = rs.getLong(4 + i);
+                        if (frequencies[i] == 0) {
+                            return null;
+                        }
+                    }
+                    return new Bm25(terms, frequencies, rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+                }, patterns);
+        if (bm25 == null) {
+            return new ArrayList<>();
+        }
+        TopK top = new TopK(limit);
+        String sql = SELECT_TEXTS_BY_TERMS.formatted((" AND " + TERM_CONDITION).repeat(terms.length));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < patterns.length; i++) {
+                ps.setString(i + 1, (String) patterns[i]);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            double score = bm25.score(rs.getString("name"), rs.getString("description"));
+            if (score >= 0) {
+                top.offer(rs.getLong("id"), score);
+            }
+        }));
+        List<Long> ids = top.ids();
+        Map<Long, Item> found = new HashMap<>();
+        for (Item item : getItemsByIds(ids)) {
+            found.put(item.getId(), item);
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.items.count", jdbcTemplate, jdbc -> jdbc.queryForObject(COUNT, Long.class))
+                .register(registry);
+    }
+
+    private void stream(PreparedStatementCreator statementCreator, Consumer<Item> action) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = statementCreator.createPreparedStatement(connection);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(ITEM_ROW_MAPPER.mapRow(rs, rs.getRow()))));
+    }
+
+    private static void setPage(PreparedStatement ps, int index, PageParams page) throws SQLException {
+        ps.setLong(index, page.getAfterId());
+        ps.setInt(index + 1, page.getSize());
+        ps.setInt(index + 2, page.getFrom());
+    }
+
+    // нарушение внешнего ключа при вставке — владелец удалён параллельно; прочие нарушения пробрасываются
+    private boolean ownerExists(long ownerId) {
+        Long count = jdbcTemplate.queryForObject(OWNER_EXISTS, Long.class, ownerId);
+        return count != null && count > 0;
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, Item item) throws SQLException {
+        ps.setString(1, item.getName());
+        ps.setString(2, item.getDescription());
+        ps.setBoolean(3, item.getAvailable());
+        ps.setLong(4, item.getOwner().getId());
+        if (item.getRequestId() != null) {
+            ps.setLong(5, item.getRequestId());
+        } else {
+            ps.setNull(5, Types.BIGINT);
+        }
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
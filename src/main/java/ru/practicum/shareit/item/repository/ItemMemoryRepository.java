@@ -1,49 +1,339 @@
 package ru.practicum.shareit.item.repository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.journal.Journal;
+import ru.practicum.shareit.journal.JournalEntry;
+import ru.practicum.shareit.pagination.PageParams;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
-public class ItemMemoryRepository implements ItemRepository {
-    private final Map<Long, Item> itemMap = new HashMap<>();
-    private long itemId = 1;
+@Profile("!jdbc & !compact & !partitioned")
+@Timed("shareit.repository")
+public class ItemMemoryRepository implements ItemRepository, MeterBinder {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Long, Item> itemMap = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> ownerItems = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> requestItems = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> ownerVersions = new ConcurrentHashMap<>();
+    // владельцы, чьи вещи удалены вместе с ними: ИД пользователей не переиспользуются,
+    // поэтому добавление, проигравшее гонку с удалением, отклоняется, а не оставляет вещь без владельца
+    private final Set<Long> deletedOwners = ConcurrentHashMap.newKeySet();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    private final AtomicLong itemId;
+    private final long idStep;
+    // изменения вещей одного владельца идут под одной блокировкой
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+    private final Journal journal;
+
+    public ItemMemoryRepository() {
+        this(Journal.NOOP);
+    }
+
+    @Autowired
+    public ItemMemoryRepository(Journal journal) {
+        this(journal, 1, 1);
+    }
+
+    /**
+     * Хранилище, выдающее ИД {@code firstId, firstId + idStep, ...}: раздел в {@link ItemPartitionedRepository}.
+     */
+    public ItemMemoryRepository(Journal journal, long firstId, long idStep) {
+        this.journal = journal;
+        this.itemId = new AtomicLong(firstId);
+        this.idStep = idStep;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
 
     @Override
     public Item addItem(Item item) {
-        item.setId(itemId);
-        itemMap.put(itemId, item);
-        itemId++;
+        item.setId(itemId.getAndAdd(idStep));
+        Lock lock = lockFor(item.getOwner().getId());
+        lock.lock();
+        try {
+            if (deletedOwners.contains(item.getOwner().getId())) {
+                return null;
+            }
+            journal.append(JournalEntry.ItemSaved.of(item), () -> insert(item));
+        } finally {
+            lock.unlock();
+        }
         return item;
     }
 
     @Override
-    public Item getItemById(Long id) {
-        if (!itemMap.containsKey(id)) {
-            return null;
+    public List<Item> addItems(List<Item> items) {
+        List<JournalEntry> entries = new ArrayList<>(items.size());
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (Item item : items) {
+            item.setId(itemId.getAndAdd(idStep));
+            stripes.add(stripeFor(item.getOwner().getId()));
         }
+        // блокировки берутся по возрастанию номера, чтобы пакеты разных владельцев не сцепились
+        stripes.forEach(stripe -> locks[stripe].lock());
+        try {
+            List<Item> added = new ArrayList<>(items.size());
+            for (Item item : items) {
+                if (!deletedOwners.contains(item.getOwner().getId())) {
+                    entries.add(JournalEntry.ItemSaved.of(item));
+                    added.add(item);
+                }
+            }
+            journal.appendAll(entries, () -> added.forEach(this::insert));
+            return added;
+        } finally {
+            stripes.forEach(stripe -> locks[stripe].unlock());
+        }
+    }
+
+    @Override
+    public boolean updateItem(Item item, Set<ItemField> changed) {
+        Lock lock = lockFor(item.getOwner().getId());
+        lock.lock();
+        try {
+            Item stored = itemMap.get(item.getId());
+            if (stored == null || stored.getVersion() != item.getVersion()) {
+                return false;
+            }
+            item.setVersion(item.getVersion() + 1);
+            journal.append(JournalEntry.ItemSaved.of(item), () -> {
+                // вещь читается без блокировки, поэтому версия записывается последней
+                stored.setName(item.getName());
+                stored.setDescription(item.getDescription());
+                stored.setAvailable(item.getAvailable());
+                stored.setVersion(item.getVersion());
+                // индекс зависит от всех трёх полей
+                searchIndex.index(stored);
+                ownerVersions.computeIfAbsent(stored.getOwner().getId(), key -> new AtomicLong()).incrementAndGet();
+            });
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Item getItemById(Long id) {
         return itemMap.get(id);
     }
 
     @Override
-    public List<Item> getAllItemsByUserId(long userId) {
-        return itemMap.values().stream().filter(item -> item.getOwner().getId() == userId).collect(Collectors.toList());
+    public List<Item> getItemsByIds(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>(ids.size());
+        ids.forEach(id -> acceptIfPresent(id, items::add));
+        return items;
+    }
+
+    @Override
+    public List<Item> getAllItemsByUserId(long userId, PageParams page) {
+        NavigableSet<Long> ids = ownerItems.get(userId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.tailSet(page.getAfterId(), false).stream()
+                .map(itemMap::get)
+                .filter(Objects::nonNull)
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long getItemsVersionByUserId(long userId) {
+        AtomicLong version = ownerVersions.get(userId);
+        return version == null ? 0 : version.get();
+    }
+
+    @Override
+    public void forEachItemByUserId(long userId, Consumer<Item> action) {
+        NavigableSet<Long> ids = ownerItems.get(userId);
+        if (ids != null) {
+            ids.forEach(id -> acceptIfPresent(id, action));
+        }
+    }
+
+    @Override
+    public void deleteAllItemsByUserId(long userId) {
+        // под блокировкой владельца: изменение, проигравшее гонку с удалением, не найдёт вещь
+        // и не оставит в журнале запись после ItemsDeleted
+        Lock lock = lockFor(userId);
+        lock.lock();
+        try {
+            deletedOwners.add(userId);
+            if (ownerItems.containsKey(userId)) {
+                journal.append(new JournalEntry.ItemsDeleted(userId), () -> removeItemsByOwner(userId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Item> getItemsByRequestIds(Collection<Long> requestIds) {
+        List<Item> items = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            NavigableSet<Long> ids = requestItems.get(requestId);
+            if (ids != null) {
+                ids.forEach(id -> acceptIfPresent(id, items::add));
+            }
+        }
+        return items;
     }
 
     @Override
-    public List<Item> getItemsBySearch(String text) {
+    public List<Item> getItemsBySearch(String text, PageParams page) {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        return itemMap.values().stream()
-                .filter(item -> item.getName().toLowerCase().contains(text)
-                        || item.getDescription().toLowerCase().contains(text))
-                .filter(Item::getAvailable)
+        return searchIndex.search(text, page.getAfterId())
+                .mapToObj(itemMap::get)
+                .filter(Objects::nonNull)
+                .skip(page.getFrom())
+                .limit(page.getSize())
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public void forEachItemBySearch(String text, Consumer<Item> action) {
+        if (!text.isBlank()) {
+            searchIndex.search(text, 0).forEach(id -> acceptIfPresent(id, action));
+        }
+    }
+
+    @Override
+    public List<Item> getTopItemsBySearch(String text, int limit) {
+        String[] terms = Bm25.terms(text);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        return searchIndex.top(terms, limit).stream()
+                .map(itemMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    int count() {
+        return itemMap.size();
+    }
+
+    /**
+     * Статистика терминов для BM25 по вещам этого хранилища.
+     */
+    SearchStats searchStats(String[] terms) {
+        return searchIndex.stats(terms);
+    }
+
+    /**
+     * Лучшие вещи этого хранилища по оценке, построенной по общей статистике.
+     */
+    TopK top(Bm25 bm25, int limit) {
+        return searchIndex.top(bm25, limit);
+    }
+
+    public void forEachItem(Consumer<Item> action) {
+        itemMap.values().forEach(action);
+    }
+
+    /**
+     * Применяет запись журнала при восстановлении: добавляет вещь с её ИД или обновляет
+     * существующий объект на месте.
+     */
+    public void replayItemSaved(Item item) {
+        Item existing = itemMap.get(item.getId());
+        if (existing == null) {
+            insert(item);
+        } else {
+            existing.setName(item.getName());
+            existing.setDescription(item.getDescription());
+            existing.setAvailable(item.getAvailable());
+            ownerVersions.computeIfAbsent(existing.getOwner().getId(), key -> new AtomicLong())
+                    .addAndGet(item.getVersion() - existing.getVersion());
+            existing.setVersion(item.getVersion());
+            searchIndex.index(existing);
+        }
+        itemId.accumulateAndGet(item.getId() + idStep, Math::max);
+    }
+
+    public void replayItemsDeleted(long userId) {
+        removeItemsByOwner(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.items.count", itemMap, Map::size).register(registry);
+        Gauge.builder("shareit.items.owners", ownerItems, Map::size).register(registry);
+        Gauge.builder("shareit.search.index.items", searchIndex, ItemSearchIndex::indexedItems).register(registry);
+        Gauge.builder("shareit.search.index.grams", searchIndex, ItemSearchIndex::grams).register(registry);
+    }
+
+    private void insert(Item item) {
+        itemMap.put(item.getId(), item);
+        ownerItems.computeIfAbsent(item.getOwner().getId(), key -> new ConcurrentSkipListSet<>()).add(item.getId());
+        if (item.getRequestId() != null) {
+            requestItems.computeIfAbsent(item.getRequestId(), key -> new ConcurrentSkipListSet<>()).add(item.getId());
+        }
+        searchIndex.index(item);
+        ownerVersions.computeIfAbsent(item.getOwner().getId(), key -> new AtomicLong())
+                .addAndGet(item.getVersion() + 1);
+    }
+
+    private boolean removeItemsByOwner(long userId) {
+        NavigableSet<Long> ids = ownerItems.remove(userId);
+        if (ids == null) {
+            return false;
+        }
+        ownerVersions.remove(userId);
+        for (Long id : ids) {
+            Item item = itemMap.remove(id);
+            searchIndex.remove(id);
+            if (item != null && item.getRequestId() != null) {
+                requestItems.computeIfPresent(item.getRequestId(), (key, answers) -> {
+                    answers.remove(id);
+                    return answers.isEmpty() ? null : answers;
+                });
+            }
+        }
+        return true;
+    }
+
+    private Lock lockFor(long ownerId) {
+        return locks[stripeFor(ownerId)];
+    }
+
+    private static int stripeFor(long ownerId) {
+        return Long.hashCode(ownerId) & (LOCK_STRIPES - 1);
+    }
+
+    private void acceptIfPresent(long id, Consumer<Item> action) {
+        Item item = itemMap.get(id);
+        if (item != null) {
+            action.accept(item);
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.journal.Journal;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.partition.Partitions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Вещи, разбитые по разделам владельцев (см. {@link Partitions}): каждый раздел — отдельное
+ * {@link ItemMemoryRepository} со своими индексами и диапазоном ИД. Операции одного владельца
+ * и одной вещи идут в один раздел, поиск опрашивает все разделы параллельно и сливает ответы.
+ * Изменение вещи выполняет поток-писатель её раздела: сервис передаёт изменённую копию, а сверка
+ * версии и запись полей в хранимую вещь идут в задаче раздела, последовательно с другими записями.
+ */
+@Repository
+@Profile("partitioned & !jdbc & !compact")
+@Timed("shareit.repository")
+public class ItemPartitionedRepository implements ItemRepository, MeterBinder {
+    private final Partitions partitions;
+    private final ItemMemoryRepository[] shards;
+
+    public ItemPartitionedRepository(Partitions partitions) {
+        this.partitions = partitions;
+        this.shards = new ItemMemoryRepository[partitions.count()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ItemMemoryRepository(Journal.NOOP, partitions.firstId(i), partitions.count());
+        }
+    }
+
+    @Override
+    public Item addItem(Item item) {
+        int partition = partitions.of(item.getOwner().getId());
+        return partitions.write(partition, () -> shards[partition].addItem(item));
+    }
+
+    @Override
+    public List<Item> addItems(List<Item> items) {
+        List<List<Item>> byPartition = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        items.forEach(item -> byPartition.get(partitions.of(item.getOwner().getId())).add(item));
+        List<Item> added = new ArrayList<>(items.size());
+        for (int i = 0; i < shards.length; i++) {
+            int partition = i;
+            if (!byPartition.get(i).isEmpty()) {
+                List<Item> shardItems = byPartition.get(partition);
+                added.addAll(partitions.write(partition, () -> shards[partition].addItems(shardItems)));
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public boolean updateItem(Item item, Set<ItemField> changed) {
+        int partition = partitions.of(item.getId());
+        return partitions.write(partition, () -> shards[partition].updateItem(item, changed));
+    }
+
+    @Override
+    public Item getItemById(Long id) {
+        return shards[partitions.of(id)].getItemById(id);
+    }
+
+    @Override
+    public List<Item> getItemsByIds(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = getItemById(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public List<Item> getAllItemsByUserId(long userId, PageParams page) {
+        return shards[partitions.of(userId)].getAllItemsByUserId(userId, page);
+    }
+
+    @Override
+    public long getItemsVersionByUserId(long userId) {
+        return shards[partitions.of(userId)].getItemsVersionByUserId(userId);
+    }
+
+    @Override
+    public void forEachItemByUserId(long userId, Consumer<Item> action) {
+        shards[partitions.of(userId)].forEachItemByUserId(userId, action);
+    }
+
+    @Override
+    public void deleteAllItemsByUserId(long userId) {
+        int partition = partitions.of(userId);
+        partitions.write(partition, () -> shards[partition].deleteAllItemsByUserId(userId));
+    }
+
+    @Override
+    public List<Item> getItemsByRequestIds(Collection<Long> requestIds) {
+        return partitions.fanOut(partition -> shards[partition].getItemsByRequestIds(requestIds)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Item> getItemsBySearch(String text, PageParams page) {
+        // каждый раздел отдаёт первые from + size своих вещей после курсора, общая страница — из их слияния
+        PageParams window = new PageParams(page.getAfterId(), 0,
+                (int) Math.min((long) page.getFrom() + page.getSize(), Integer.MAX_VALUE));
+        return partitions.fanOut(partition -> shards[partition].getItemsBySearch(text, window)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Item::getId))
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachItemBySearch(String text, Consumer<Item> action) {
+        for (ItemMemoryRepository shard : shards) {
+            shard.forEachItemBySearch(text, action);
+        }
+    }
+
+    @Override
+    public List<Item> getTopItemsBySearch(String text, int limit) {
+        String[] terms = Bm25.terms(text);
+        if (terms.length == 0) {
+            return new ArrayList<>();
+        }
+        // сначала общая статистика терминов, затем оценки в разделах по ней, чтобы они были сравнимы
+        Bm25 bm25 = partitions.fanOut(partition -> shards[partition].searchStats(terms)).stream()
+                .reduce(SearchStats::plus)
+                .map(stats -> stats.bm25(terms))
+                .orElse(null);
+        if (bm25 == null) {
+            return new ArrayList<>();
+        }
+        TopK top = new TopK(limit);
+        partitions.fanOut(partition -> shards[partition].top(bm25, limit)).forEach(top::offerAll);
+        return top.ids().stream()
+                .map(this::getItemById)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.items.count", shards, ItemPartitionedRepository::count).register(registry);
+    }
+
+    private static int count(ItemMemoryRepository[] shards) {
+        int count = 0;
+        for (ItemMemoryRepository shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+}
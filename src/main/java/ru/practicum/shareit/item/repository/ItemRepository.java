@@ -1,16 +1,66 @@
 package ru.practicum.shareit.item.repository;
 
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ItemRepository {
 
+    /**
+     * Добавляет вещь и возвращает её с ИД; null — владелец удалён параллельно и вещь не сохранена.
+     */
     Item addItem(Item item);
 
+    /**
+     * Добавленные вещи с ИД; вещи владельцев, удалённых параллельно, пропускаются.
+     */
+    List<Item> addItems(List<Item> items);
+
+    /**
+     * Переносит изменённые поля копии {@code item} в хранимую вещь и увеличивает её версию на единицу,
+     * если версия хранимой вещи всё ещё равна версии копии. При успехе копия получает новую версию;
+     * false — вещь параллельно изменена или удалена. Индексы обновляются только для изменённых полей.
+     */
+    boolean updateItem(Item item, Set<ItemField> changed);
+
     Item getItemById(Long id);
 
-    List<Item> getAllItemsByUserId(long userId);
+    /**
+     * Найденные вещи из переданных ИД одной выборкой, порядок не гарантируется.
+     */
+    List<Item> getItemsByIds(Collection<Long> ids);
+
+    List<Item> getAllItemsByUserId(long userId, PageParams page);
+
+    /**
+     * Версия списка вещей владельца: число вещей плюс сумма их версий. Вещи владельца только
+     * добавляются и изменяются, поэтому версия растёт при любом изменении списка.
+     */
+    long getItemsVersionByUserId(long userId);
+
+    void forEachItemByUserId(long userId, Consumer<Item> action);
+
+    /**
+     * Удаляет вещи удаляемого пользователя; добавление его вещей после этого вызова отклоняется.
+     */
+    void deleteAllItemsByUserId(long userId);
+
+    /**
+     * Вещи, созданные в ответ на любой из запросов, одной выборкой.
+     */
+    List<Item> getItemsByRequestIds(Collection<Long> requestIds);
+
+    List<Item> getItemsBySearch(String text, PageParams page);
+
+    void forEachItemBySearch(String text, Consumer<Item> action);
 
-    List<Item> getItemsBySearch(String text);
+    /**
+     * Не больше {@code limit} доступных вещей, содержащих все слова запроса, по убыванию оценки BM25.
+     */
+    List<Item> getTopItemsBySearch(String text, int limit);
 }
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+/**
+ * Инвертированный индекс по n-граммам (длиной 1..3) названия и описания доступных вещей.
+ * Запрос длиной до трёх символов отвечается одним списком, более длинный — пересечением списков
+ * его триграмм с проверкой кандидатов по сохранённому тексту. Результат — ленивый поток ИД
+ * по возрастанию, начиная после курсора, так что страница не требует полного пересечения.
+ */
+class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> indexedTexts = new ConcurrentHashMap<>();
+    // суммарные длины названий и описаний для средних длин в BM25
+    private final AtomicLong nameChars = new AtomicLong();
+    private final AtomicLong descriptionChars = new AtomicLong();
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+    ItemSearchIndex() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    void index(Item item) {
+        Lock lock = lockFor(item.getId());
+        lock.lock();
+        try {
+            removeUnlocked(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+            String[] texts = {item.getName().toLowerCase(), item.getDescription().toLowerCase()};
+            for (String gram : grams(texts)) {
+                postings.compute(gram, (key, ids) -> {
+                    NavigableSet<Long> result = ids == null ? new ConcurrentSkipListSet<>() : ids;
+                    result.add(item.getId());
+                    return result;
+                });
+            }
+            indexedTexts.put(item.getId(), texts);
+            nameChars.addAndGet(texts[0].length());
+            descriptionChars.addAndGet(texts[1].length());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(long id) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    LongStream search(String text, long afterId) {
+        if (text.length() <= GRAM_SIZE) {
+            NavigableSet<Long> ids = postings.get(text);
+            return ids == null ? LongStream.empty() : ids.tailSet(afterId, false).stream().mapToLong(Long::longValue);
+        }
+        List<NavigableSet<Long>> sets = new ArrayList<>();
+        for (String gram : queryGrams(text)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return LongStream.empty();
+            }
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        return sets.get(0).tailSet(afterId, false).stream()
+                .filter(id -> containsInAll(sets, id) && matches(indexedTexts.get(id), text))
+                .mapToLong(Long::longValue);
+    }
+
+    /**
+     * Лучшие по BM25 вещи, содержащие все термины. Перебираются только кандидаты самого редкого
+     * термина, а в памяти держится не больше {@code limit} из них.
+     */
+    List<Long> top(String[] terms, int limit) {
+        Bm25 bm25 = stats(terms).bm25(terms);
+        return bm25 == null ? List.of() : top(bm25, limit).ids();
+    }
+
+    SearchStats stats(String[] terms) {
+        long[] frequencies = new long[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            frequencies[i] = documentFrequency(terms[i]);
+        }
+        return new SearchStats(indexedTexts.size(), frequencies, nameChars.get(), descriptionChars.get());
+    }
+
+    TopK top(Bm25 bm25, int limit) {
+        TopK top = new TopK(limit);
+        search(bm25.rarestTerm(), 0).forEach(id -> {
+            String[] texts = indexedTexts.get(id);
+            double score = texts == null ? -1 : bm25.score(texts[0], texts[1]);
+            if (score >= 0) {
+                top.offer(id, score);
+            }
+        });
+        return top;
+    }
+
+    /**
+     * Точное число вещей для терминов до трёх символов, для более длинных — оценка сверху
+     * по самой короткой из списков его триграмм.
+     */
+    private long documentFrequency(String term) {
+        if (term.length() <= GRAM_SIZE) {
+            NavigableSet<Long> ids = postings.get(term);
+            return ids == null ? 0 : ids.size();
+        }
+        long frequency = Long.MAX_VALUE;
+        for (String gram : queryGrams(term)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            frequency = Math.min(frequency, ids == null ? 0 : ids.size());
+        }
+        return frequency;
+    }
+
+    int indexedItems() {
+        return indexedTexts.size();
+    }
+
+    int grams() {
+        return postings.size();
+    }
+
+    private void removeUnlocked(long id) {
+        String[] texts = indexedTexts.remove(id);
+        if (texts == null) {
+            return;
+        }
+        nameChars.addAndGet(-texts[0].length());
+        descriptionChars.addAndGet(-texts[1].length());
+        for (String gram : grams(texts)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private Lock lockFor(long id) {
+        return locks[Long.hashCode(id) & (LOCK_STRIPES - 1)];
+    }
+
+    private static boolean containsInAll(List<NavigableSet<Long>> sets, Long id) {
+        for (int i = 1; i < sets.size(); i++) {
+            if (!sets.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String[] texts, String text) {
+        return texts != null && (texts[0].contains(text) || texts[1].contains(text));
+    }
+
+    static Set<String> grams(String[] texts) {
+        Set<String> grams = new HashSet<>();
+        for (String text : texts) {
+            for (int n = 1; n <= GRAM_SIZE; n++) {
+                for (int i = 0; i + n <= text.length(); i++) {
+                    grams.add(text.substring(i, i + n));
+                }
+            }
+        }
+        return grams;
+    }
+
+    static Set<String> queryGrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный растущий список номеров строк без упаковки в объекты.
+ */
+class RowList {
+    private int[] rows = new int[4];
+    private int size;
+
+    void insert(int row) {
+        if (size > 0 && rows[size - 1] >= row) {
+            int index = Arrays.binarySearch(rows, 0, size, row);
+            if (index >= 0) {
+                return;
+            }
+            insertAt(-index - 1, row);
+            return;
+        }
+        insertAt(size, row);
+    }
+
+    boolean remove(int row) {
+        int index = Arrays.binarySearch(rows, 0, size, row);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int row) {
+        return Arrays.binarySearch(rows, 0, size, row) >= 0;
+    }
+
+    int lowerBound(int row) {
+        int index = Arrays.binarySearch(rows, 0, size, row);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    int get(int index) {
+        return rows[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insertAt(int index, int row) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size + (size >> 1) + 1);
+        }
+        System.arraycopy(rows, index, rows, index + 1, size - index);
+        rows[index] = row;
+        size++;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Статистика терминов запроса для BM25: число проиндексированных вещей, число вещей с каждым
+ * термином и суммарные длины полей. Статистики разделов складываются, чтобы оценки во всех
+ * разделах считались по общим idf и средним длинам.
+ */
+record SearchStats(long documents, long[] frequencies, long nameChars, long descriptionChars) {
+
+    SearchStats plus(SearchStats other) {
+        long[] sum = new long[frequencies.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = frequencies[i] + other.frequencies[i];
+        }
+        return new SearchStats(documents + other.documents, sum, nameChars + other.nameChars,
+                descriptionChars + other.descriptionChars);
+    }
+
+    /**
+     * Оценка BM25 по этой статистике или {@code null}, если какого-то термина нет ни в одной вещи.
+     */
+    Bm25 bm25(String[] terms) {
+        for (long frequency : frequencies) {
+            if (frequency == 0) {
+                return null;
+            }
+        }
+        return new Bm25(terms, frequencies, documents, (double) nameChars / documents,
+                (double) descriptionChars / documents);
+    }
+}
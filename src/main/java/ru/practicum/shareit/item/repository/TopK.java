@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Лучшие K по оценке: куча-минимум размера K, худший из отобранных на вершине и вытесняется
+ * более сильным кандидатом. При равной оценке выше вещь с меньшим ИД.
+ */
+final class TopK {
+    private static final Comparator<Scored> WORST_FIRST =
+            Comparator.comparingDouble(Scored::score).thenComparing(Scored::id, Comparator.reverseOrder());
+
+    private final int limit;
+    private final PriorityQueue<Scored> heap;
+
+    TopK(int limit) {
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+    }
+
+    void offer(long id, double score) {
+        if (heap.size() < limit) {
+            heap.add(new Scored(id, score));
+            return;
+        }
+        Scored worst = heap.peek();
+        if (score > worst.score() || (score == worst.score() && id < worst.id())) {
+            heap.poll();
+            heap.add(new Scored(id, score));
+        }
+    }
+
+    /**
+     * Добавляет отобранных другим отбором, например из другого раздела.
+     */
+    void offerAll(TopK other) {
+        other.heap.forEach(scored -> offer(scored.id(), scored.score()));
+    }
+
+    /**
+     * ИД от лучшего к худшему.
+     */
+    List<Long> ids() {
+        List<Scored> sorted = new ArrayList<>(heap);
+        sorted.sort(WORST_FIRST.reversed());
+        return sorted.stream().map(Scored::id).toList();
+    }
+
+    private record Scored(long id, double score) {
+    }
+}
@@ -1,18 +1,41 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
+import ru.practicum.shareit.pagination.PageParams;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     ItemDto addItem(long userId, ItemDto itemDto);
 
-    ItemDto updateItem(long userId, ItemDto itemDto);
+    ItemBatchResultDto addItems(long userId, InputStream items) throws IOException;
+
+    /**
+     * Применяет JSON Merge Patch к вещи владельца. Возвращает обновлённую вещь или null,
+     * если она не нужна вызывающему.
+     */
+    ItemDto updateItem(long userId, long id, ItemPatchDto patch, boolean returnItem);
 
     ItemDto getItemById(long id);
 
-    List<ItemDto> getAllItemsByUserId(long userId);
+    long getItemsVersionByUserId(long userId);
+
+    List<ItemDto> getAllItemsByUserId(long userId, PageParams page);
+
+    List<ItemDto> getItemsBySearch(String text, PageParams page);
+
+    List<ItemDto> getTopItemsBySearch(String text, int limit);
+
+    /**
+     * Владелец проверяется до первой вещи, переданной потребителю.
+     */
+    void exportAllItemsByUserId(long userId, Consumer<ItemDto> consumer);
 
-    List<ItemDto> getItemsBySearch(String text);
+    void exportItemsBySearch(String text, Consumer<ItemDto> consumer);
 }
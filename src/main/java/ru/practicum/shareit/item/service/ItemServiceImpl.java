@@ -1,63 +1,171 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.event.DomainEventType;
+import ru.practicum.shareit.event.EventRing;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.loader.BatchLoader;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    // столько раз изменение повторяется поверх параллельных, прежде чем клиент получит 409
+    private static final int UPDATE_ATTEMPTS = 3;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final RequestLoaders loaders;
+    private final ObjectMapper objectMapper;
+    private final EventRing events;
 
     @Override
     public ItemDto addItem(long userId, ItemDto itemDto) {
         isItemDtoValid(itemDto);
-        User user = userRepository.getUserById(userId);
+        User user = loaders.users().load(userId);
         isUserPresent(user, userId);
+        if (itemDto.getRequest() != null && loaders.requests().load(itemDto.getRequest()) == null) {
+            throw new NotFoundException("Запрос с ИД " + itemDto.getRequest() + " отсутствует в БД.");
+        }
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(user);
         item = itemRepository.addItem(item);
+        if (item == null) {
+            // владелец удалён между проверкой и записью
+            throw new NotFoundException("Пользователь с ИД " + userId + " отсутствует в БД.");
+        }
         itemDto.setId(item.getId());
+        publishCreated(item);
         log.info("Добавлена новая вещь с ID = {}", item.getId());
         return itemDto;
     }
 
     @Override
-    public ItemDto updateItem(long userId, ItemDto itemDto) {
-        Item item = itemRepository.getItemById(itemDto.getId());
-        isItemPresent(item, itemDto.getId());
-        isUserOwner(item, userId);
-        if (itemDto.getAvailable() != null) {
-            item.setAvailable(itemDto.getAvailable());
-        }
-        if (itemDto.getDescription() != null) {
-            item.setDescription(itemDto.getDescription());
+    public ItemBatchResultDto addItems(long userId, InputStream items) throws IOException {
+        User user = loaders.users().load(userId);
+        isUserPresent(user, userId);
+        ItemBatchResultDto result = new ItemBatchResultDto();
+        BatchLoader<Long, ItemRequest> requests = loaders.requests();
+        List<Item> chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+        List<Integer> rows = new ArrayList<>(BATCH_CHUNK_SIZE);
+        int row = 0;
+        try (MappingIterator<ItemDto> iterator = objectMapper.readerFor(ItemDto.class).readValues(items)) {
+            while (iterator.hasNextValue()) {
+                ItemDto itemDto;
+                try {
+                    itemDto = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    result.getErrors().add(new ItemBatchErrorDto(row++, "Строка не разобрана: " + e.getOriginalMessage()));
+                    continue;
+                }
+                if (!isValid(itemDto)) {
+                    result.getErrors().add(new ItemBatchErrorDto(row++, "Вещь не прошла проверку."));
+                    continue;
+                }
+                Item item = ItemMapper.toItem(itemDto);
+                item.setOwner(user);
+                chunk.add(item);
+                rows.add(row++);
+                if (chunk.size() == BATCH_CHUNK_SIZE) {
+                    addChunk(chunk, rows, requests, result);
+                    chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+                    rows = new ArrayList<>(BATCH_CHUNK_SIZE);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            result.getErrors().add(new ItemBatchErrorDto(row, "Тело запроса не разобрано: " + e.getOriginalMessage()));
         }
-        if (itemDto.getName() != null) {
-            item.setName(itemDto.getName());
+        if (!chunk.isEmpty()) {
+            addChunk(chunk, rows, requests, result);
         }
-        if (itemDto.getName() == null && itemDto.getDescription() == null && itemDto.getAvailable() == null) {
+        result.getErrors().sort(Comparator.comparingInt(ItemBatchErrorDto::getRow));
+        log.info("Пакетно добавлено вещей пользователя с ид {}: {} шт., отклонено строк: {}.",
+                userId, result.getCreated(), result.getErrors().size());
+        return result;
+    }
+
+    /**
+     * Запись кэша удаляется до и после изменения: чтение, заполнившее кэш прежним состоянием
+     * во время изменения, не переживёт его.
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "items", key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = "items", key = "#id")
+    })
+    public ItemDto updateItem(long userId, long id, ItemPatchDto patch, boolean returnItem) {
+        Item item = loaders.items().load(id);
+        isItemPresent(item, id);
+        isUserOwner(item, userId);
+        if (patch.getPresent().isEmpty()) {
             throw new IllegalArgumentException("Необходимо указать хотя бы одно поле для обновления.");
         }
-        log.info("Вещь с ID {} обновлена.", itemDto.getId());
-        return ItemMapper.toItemDto(item);
+        // новое состояние готовится на копии, а хранилище переносит его в вещь вместе с новой версией
+        Item updated;
+        Set<ItemField> changed;
+        for (int attempt = 1; ; attempt++) {
+            updated = new Item(item);
+            changed = ItemMapper.applyPatch(updated, patch);
+            if (changed.isEmpty() || itemRepository.updateItem(updated, changed)) {
+                break;
+            }
+            // повторное чтение идёт мимо загрузчика: в нём осталось состояние до параллельного изменения
+            if (attempt == UPDATE_ATTEMPTS) {
+                throw new ValidationException("Вещь с ИД " + id + " изменена параллельно, повторите запрос.");
+            }
+            item = itemRepository.getItemById(id);
+            isItemPresent(item, id);
+        }
+        if (!changed.isEmpty()) {
+            loaders.items().forget(id);
+            ItemDto itemDto = ItemMapper.toItemDto(updated);
+            events.publish(DomainEventType.ITEM_UPDATED, id, updated.getVersion(), itemDto);
+            if (changed.contains(ItemField.AVAILABLE)) {
+                events.publish(DomainEventType.ITEM_AVAILABILITY_CHANGED, id, updated.getVersion(), itemDto);
+            }
+        }
+        log.info("Вещь с ID {} обновлена, изменённые поля: {}.", id, changed);
+        return returnItem ? ItemMapper.toItemDto(updated) : null;
     }
 
     @Override
+    @Cacheable(cacheNames = "items", key = "#id")
     public ItemDto getItemById(long id) {
-        Item item = itemRepository.getItemById(id);
+        Item item = loaders.items().load(id);
         isItemPresent(item, id);
         ItemDto itemDto = ItemMapper.toItemDto(item);
         log.info("Вещь с ID {} возвращена.", id);
@@ -65,51 +173,130 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> getAllItemsByUserId(long userId) {
-        User user = userRepository.getUserById(userId);
+    public long getItemsVersionByUserId(long userId) {
+        isUserPresent(loaders.users().load(userId), userId);
+        return itemRepository.getItemsVersionByUserId(userId);
+    }
+
+    @Override
+    public List<ItemDto> getAllItemsByUserId(long userId, PageParams page) {
+        User user = loaders.users().load(userId);
         isUserPresent(user, userId);
-        List<Item> items = itemRepository.getAllItemsByUserId(userId);
+        List<Item> items = itemRepository.getAllItemsByUserId(userId, page);
         List<ItemDto> itemsDto = items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
-        log.info("Текущее количество вещей пользователя с ид {} составляет: {} шт. Список возвращён.",
+        log.info("Количество вещей пользователя с ид {} на странице: {} шт. Список возвращён.",
                 userId, items.size());
         return itemsDto;
     }
 
     @Override
-    public List<ItemDto> getItemsBySearch(String text) {
-        List<Item> items = itemRepository.getItemsBySearch(text.toLowerCase());
+    public List<ItemDto> getItemsBySearch(String text, PageParams page) {
+        List<Item> items = itemRepository.getItemsBySearch(text.toLowerCase(), page);
         List<ItemDto> itemsDto = items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
-        log.info("Текущее количество свободных вещей по запросу \"{}\" составляет: {} шт. Список возвращён.",
+        log.info("Количество свободных вещей по запросу \"{}\" на странице: {} шт. Список возвращён.",
                 text, items.size());
         return itemsDto;
     }
 
+    @Override
+    public List<ItemDto> getTopItemsBySearch(String text, int limit) {
+        List<Item> items = itemRepository.getTopItemsBySearch(text.toLowerCase(), limit);
+        List<ItemDto> itemsDto = items.stream().map(ItemMapper::toItemDto).collect(Collectors.toList());
+        log.info("Лучших свободных вещей по запросу \"{}\": {} шт. из {}. Список возвращён.",
+                text, items.size(), limit);
+        return itemsDto;
+    }
+
+    @Override
+    public void exportAllItemsByUserId(long userId, Consumer<ItemDto> consumer) {
+        User user = loaders.users().load(userId);
+        isUserPresent(user, userId);
+        AtomicLong count = new AtomicLong();
+        itemRepository.forEachItemByUserId(userId, item -> {
+            consumer.accept(ItemMapper.toItemDto(item));
+            count.incrementAndGet();
+        });
+        log.info("Выгружено вещей пользователя с ид {}: {} шт.", userId, count.get());
+    }
+
+    @Override
+    public void exportItemsBySearch(String text, Consumer<ItemDto> consumer) {
+        AtomicLong count = new AtomicLong();
+        itemRepository.forEachItemBySearch(text.toLowerCase(), item -> {
+            consumer.accept(ItemMapper.toItemDto(item));
+            count.incrementAndGet();
+        });
+        log.info("Выгружено свободных вещей по запросу \"{}\": {} шт.", text, count.get());
+    }
+
+    /**
+     * Запросы, на которые ссылаются вещи пачки, проверяются одной выборкой, а не по строке;
+     * уже проверенные в прежних пачках берутся из загрузчика.
+     */
+    private void addChunk(List<Item> chunk, List<Integer> rows, BatchLoader<Long, ItemRequest> loader,
+                          ItemBatchResultDto result) {
+        Map<Long, ItemRequest> requests = loader.loadAll(chunk.stream()
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        List<Item> accepted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Long requestId = chunk.get(i).getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                result.getErrors().add(new ItemBatchErrorDto(rows.get(i),
+                        "Запрос с ИД " + requestId + " отсутствует в БД."));
+            } else {
+                accepted.add(chunk.get(i));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<Item> added = itemRepository.addItems(accepted);
+        added.forEach(this::publishCreated);
+        result.setCreated(result.getCreated() + added.size());
+        if (added.size() < accepted.size()) {
+            // пакет одного владельца: недобавленные строки означают, что он удалён во время импорта
+            throw new NotFoundException("Пользователь с ИД " + accepted.get(0).getOwner().getId()
+                    + " отсутствует в БД.");
+        }
+    }
+
+    private void publishCreated(Item item) {
+        events.publish(DomainEventType.ITEM_CREATED, item.getId(), item.getVersion(), ItemMapper.toItemDto(item));
+    }
+
     private void isUserPresent(User user, Long id) {
         if (user == null) {
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", id));
+            throw new NotFoundException("Пользователь с ИД " + id + " отсутствует в БД.");
         }
     }
 
     private void isItemPresent(Item item, Long id) {
         if (item == null) {
-            throw new NotFoundException(String.format("Вещь с ИД %d отсутствует в БД.", id));
+            throw new NotFoundException("Вещь с ИД " + id + " отсутствует в БД.");
         }
     }
 
     private void isUserOwner(Item item, long userId) {
         if (item.getOwner().getId() != userId) {
-            throw new NotFoundException(String.format("Пользователь с ИД %d не является владельцем вещи с ИД %d.",
-                    userId, item.getId()));
+            throw new NotFoundException("Пользователь с ИД " + userId + " не является владельцем вещи с ИД "
+                    + item.getId() + ".");
         }
     }
 
     private void isItemDtoValid(ItemDto itemDto) {
-        if (itemDto.getName() == null
-                || itemDto.getName().isBlank()
-                || itemDto.getDescription() == null
-                || itemDto.getDescription().isBlank()
-                || itemDto.getAvailable() == null) {
+        if (!isValid(itemDto)) {
             throw new RuntimeException("Вещь не прошла проверку.");
         }
     }
+
+    private boolean isValid(ItemDto itemDto) {
+        return itemDto != null
+                && itemDto.getName() != null
+                && !itemDto.getName().isBlank()
+                && itemDto.getDescription() != null
+                && !itemDto.getDescription().isBlank()
+                && itemDto.getAvailable() != null;
+    }
 }
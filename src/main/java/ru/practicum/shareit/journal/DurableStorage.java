@@ -0,0 +1,188 @@
+package ru.practicum.shareit.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Восстанавливает хранилища в памяти из последнего снимка и хвоста журнала при старте
+ * и периодически пишет новый снимок, после чего удаляет старые снимки и сегменты.
+ */
+@Slf4j
+@Component
+@Profile("durable & !jdbc & !compact & !partitioned")
+public class DurableStorage {
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d+)\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+
+    private final FileJournal journal;
+    private final UserMemoryRepository userRepository;
+    private final ItemMemoryRepository itemRepository;
+    private final ItemRequestMemoryRepository itemRequestRepository;
+    private final Path directory;
+
+    public DurableStorage(FileJournal journal, UserMemoryRepository userRepository,
+                          ItemMemoryRepository itemRepository, ItemRequestMemoryRepository itemRequestRepository,
+                          @Value("${shareit.journal.dir}") Path directory) {
+        this.journal = journal;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.directory = directory;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        long snapshotSegment = latest(SNAPSHOT);
+        long entries = 0;
+        long firstSegment = 0;
+        if (snapshotSegment >= 0) {
+            long[] count = {0};
+            firstSegment = SnapshotFile.read(SnapshotFile.path(directory, snapshotSegment), entry -> {
+                replay(entry);
+                count[0]++;
+            });
+            entries += count[0];
+        }
+        long lastSegment = firstSegment - 1;
+        for (long segment : numbers(SEGMENT)) {
+            if (segment >= firstSegment) {
+                entries += FileJournal.readSegment(FileJournal.segmentPath(directory, segment), this::replay);
+                lastSegment = segment;
+            }
+        }
+        dropOrphanItems();
+        journal.open(lastSegment + 1);
+        log.info("Хранилище восстановлено из {}: записей {}, за {} мс.", directory, entries,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Снимок делается без остановки записи: журнал сначала переключается на новый сегмент,
+     * поэтому всё, что могло не попасть в снимок, окажется в этом сегменте и будет применено повторно.
+     */
+    @Scheduled(initialDelayString = "${shareit.journal.snapshot-interval}",
+            fixedDelayString = "${shareit.journal.snapshot-interval}")
+    public void snapshot() throws IOException {
+        long started = System.nanoTime();
+        long segment = journal.rotate();
+        Path target = SnapshotFile.path(directory, segment);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        long entries = SnapshotFile.write(temporary, segment, sink -> {
+            userRepository.forEachUser(user -> sink.accept(JournalEntry.UserSaved.of(user)));
+            itemRequestRepository.forEachRequest(request -> sink.accept(JournalEntry.RequestSaved.of(request)));
+            itemRepository.forEachItem(item -> sink.accept(JournalEntry.ItemSaved.of(item)));
+        });
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        for (long old : numbers(SNAPSHOT)) {
+            if (old < segment) {
+                Files.deleteIfExists(SnapshotFile.path(directory, old));
+            }
+        }
+        for (long old : numbers(SEGMENT)) {
+            if (old < segment) {
+                Files.deleteIfExists(FileJournal.segmentPath(directory, old));
+            }
+        }
+        log.info("Записан снимок {}: записей {}, за {} мс.", target.getFileName(), entries,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() throws IOException {
+        snapshot();
+    }
+
+    private void replay(JournalEntry entry) {
+        switch (entry) {
+            case JournalEntry.UserSaved saved -> {
+                User user = new User(saved.name(), saved.email());
+                user.setId(saved.id());
+                user.setVersion(saved.version());
+                userRepository.replayUserSaved(user);
+            }
+            case JournalEntry.UserDeleted deleted -> userRepository.replayUserDeleted(deleted.id());
+            case JournalEntry.ItemSaved saved -> {
+                Item item = new Item(saved.name(), saved.description(), saved.available());
+                item.setId(saved.id());
+                item.setOwner(user(saved.ownerId()));
+                item.setRequestId(saved.requestId());
+                item.setVersion(saved.version());
+                itemRepository.replayItemSaved(item);
+            }
+            case JournalEntry.ItemsDeleted deleted -> itemRepository.replayItemsDeleted(deleted.ownerId());
+            case JournalEntry.RequestSaved saved -> {
+                ItemRequest request = new ItemRequest(saved.description(), user(saved.requestorId()));
+                request.setId(saved.id());
+                request.setCreated(saved.created());
+                itemRequestRepository.replayRequestSaved(request);
+            }
+        }
+    }
+
+    // журналы, записанные до запрета добавлять вещи удалённым владельцам, могли оставить вещь без владельца
+    private void dropOrphanItems() {
+        Set<Long> orphanOwners = new HashSet<>();
+        itemRepository.forEachItem(item -> {
+            if (userRepository.getUserById(item.getOwner().getId()) == null) {
+                orphanOwners.add(item.getOwner().getId());
+            }
+        });
+        orphanOwners.forEach(itemRepository::replayItemsDeleted);
+        if (!orphanOwners.isEmpty()) {
+            log.warn("Удалены вещи без владельца, владельцев: {}.", orphanOwners.size());
+        }
+    }
+
+    // в снимке, снятом на ходу, вещь может пережить владельца: её удалит запись журнала ItemsDeleted;
+    // запросы удалённых пользователей остаются в ленте
+    private User user(long userId) {
+        User user = userRepository.getUserById(userId);
+        if (user == null) {
+            user = new User(null, null);
+            user.setId(userId);
+        }
+        return user;
+    }
+
+    private long latest(Pattern pattern) throws IOException {
+        List<Long> found = numbers(pattern);
+        return found.isEmpty() ? -1 : found.get(found.size() - 1);
+    }
+
+    private List<Long> numbers(Pattern pattern) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> pattern.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package ru.practicum.shareit.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Журнал в сегментах {@code wal-N.log}. Записи ставятся в очередь, единственный поток-писатель
+ * забирает всё накопившееся, пишет одним вызовом и делает один {@code force} на всю группу
+ * (group commit), после чего освобождает ожидающих. Сегмент сменяется при снимке и по размеру.
+ * Смена сегмента ждёт, пока уже записанные изменения будут применены в памяти: снимок, снятый
+ * после неё, содержит всё, что лежит в предыдущих сегментах.
+ */
+@Slf4j
+public class FileJournal implements Journal, AutoCloseable {
+    private static final int MAX_BATCH = 4096;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // изменения держат чтение от постановки в очередь до применения в памяти, смена сегмента — запись
+    private final ReadWriteLock applying = new ReentrantReadWriteLock();
+    private Thread writer;
+    private FileChannel channel;
+    private long segment;
+    // сегмент не удалось ни обрезать, ни сменить после ошибки: дальнейшие записи отклоняются
+    private IOException broken;
+    private volatile boolean closed;
+
+    public FileJournal(Path directory, long maxSegmentBytes) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("wal-%020d.log", segment));
+    }
+
+    /**
+     * Передаёт получателю записи сегмента. Недописанный хвост (сбой во время записи) отрезается.
+     */
+    static long readSegment(Path path, Consumer<JournalEntry> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    SnapshotFile.checkedSize(channel.size()));
+            long count = 0;
+            JournalEntry entry;
+            while ((entry = JournalCodec.decode(buffer)) != null) {
+                sink.accept(entry);
+                count++;
+            }
+            if (buffer.hasRemaining()) {
+                log.warn("Сегмент {} обрезан: отброшено {} байт недописанных записей.", path, buffer.remaining());
+                channel.truncate(buffer.position());
+                channel.force(true);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Открывает сегмент с указанным номером и запускает писателя; вызывается после восстановления.
+     */
+    public void open(long firstSegment) {
+        segment = firstSegment;
+        channel = openSegment(firstSegment);
+        writer = Thread.ofPlatform().name("journal-writer").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void append(JournalEntry entry, Runnable apply) {
+        appendAll(List.of(entry), apply);
+    }
+
+    @Override
+    public void appendAll(List<? extends JournalEntry> entries, Runnable apply) {
+        checkOpen();
+        List<Pending> pending = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            pending.add(new Pending(JournalCodec.encode(entry)));
+        }
+        applying.readLock().lock();
+        try {
+            queue.addAll(pending);
+            for (Pending entry : pending) {
+                await(entry);
+            }
+            apply.run();
+        } finally {
+            applying.readLock().unlock();
+        }
+    }
+
+    /**
+     * Закрывает текущий сегмент и открывает следующий. Все записи, добавленные после возврата,
+     * попадут в сегмент с возвращённым номером или в более поздние.
+     */
+    public long rotate() {
+        Pending pending = new Pending(Pending.ROTATE);
+        applying.writeLock().lock();
+        try {
+            queue.add(pending);
+            await(pending);
+        } finally {
+            applying.writeLock().unlock();
+        }
+        return pending.segment;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (writer == null || closed) {
+            return;
+        }
+        closed = true;
+        Pending pending = new Pending(Pending.STOP);
+        queue.add(pending);
+        writer.join();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            if (broken != null) {
+                if (rejectAll(batch)) {
+                    closeChannel();
+                    return;
+                }
+                batch.clear();
+                continue;
+            }
+            int next = 0;
+            try {
+                while (next < batch.size()) {
+                    next = writeFrames(batch, next);
+                    if (next < batch.size()) {
+                        if (!handleCommand(batch.get(next))) {
+                            failAll(batch.subList(next + 1, batch.size()), new IOException("Журнал закрыт."));
+                            closeChannel();
+                            return;
+                        }
+                        next++;
+                    }
+                }
+                if (channel.size() >= maxSegmentBytes) {
+                    switchSegment();
+                }
+            } catch (IOException e) {
+                log.error("Ошибка записи журнала: {}", e.getMessage(), e);
+                failAll(batch.subList(next, batch.size()), e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Пишет подряд идущие записи начиная с {@code from} до первой команды одним вызовом с одним
+     * {@code force}. Возвращает индекс команды или размер пакета.
+     */
+    private int writeFrames(List<Pending> batch, int from) throws IOException {
+        int to = from;
+        int size = 0;
+        while (to < batch.size() && !batch.get(to).isCommand()) {
+            size += batch.get(to).frame.length;
+            to++;
+        }
+        if (to == from) {
+            return to;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int i = from; i < to; i++) {
+            buffer.put(batch.get(i).frame);
+        }
+        buffer.flip();
+        long written = channel.size();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            discardFrom(written);
+            throw e;
+        }
+        for (int i = from; i < to; i++) {
+            batch.get(i).done.complete(null);
+        }
+        return to;
+    }
+
+    /**
+     * Убирает из сегмента кадры упавшей группы, чтобы следующие записи не легли после недописанного
+     * кадра: восстановление остановилось бы на нём и потеряло их. Если обрезать не удалось, журнал
+     * переходит на новый сегмент, а хвост старого отрежет восстановление.
+     */
+    private void discardFrom(long position) {
+        try {
+            channel.truncate(position);
+            channel.force(false);
+            return;
+        } catch (IOException e) {
+            log.warn("Не удалось обрезать сегмент {} после ошибки: {}", segment, e.getMessage());
+        }
+        closeChannel();
+        segment++;
+        try {
+            channel = FileChannel.open(segmentPath(directory, segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Не удалось открыть сегмент {}, журнал больше не принимает записи.", segment, e);
+            broken = e;
+        }
+    }
+
+    /**
+     * Отклоняет записи после неисправимой ошибки; возвращает true, если среди них была остановка.
+     */
+    private boolean rejectAll(List<Pending> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (pending.frame == Pending.STOP) {
+                pending.done.complete(null);
+                failAll(batch.subList(i + 1, batch.size()), new IOException("Журнал закрыт."));
+                return true;
+            }
+            pending.done.completeExceptionally(broken);
+        }
+        return false;
+    }
+
+    private boolean handleCommand(Pending command) throws IOException {
+        if (command.frame == Pending.STOP) {
+            command.done.complete(null);
+            return false;
+        }
+        switchSegment();
+        command.segment = segment;
+        command.done.complete(null);
+        return true;
+    }
+
+    private void switchSegment() throws IOException {
+        channel.close();
+        segment++;
+        channel = openSegment(segment);
+    }
+
+    private FileChannel openSegment(long number) {
+        try {
+            return FileChannel.open(segmentPath(directory, number),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть сегмент журнала: {}", e.getMessage());
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Журнал закрыт.");
+        }
+    }
+
+    private static void failAll(List<Pending> batch, IOException e) {
+        for (Pending pending : batch) {
+            pending.done.completeExceptionally(e);
+        }
+    }
+
+    private static void await(Pending pending) {
+        try {
+            pending.done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException("Не удалось записать журнал.", io);
+            }
+            throw e;
+        }
+    }
+
+    private static class Pending {
+        static final byte[] ROTATE = new byte[0];
+        static final byte[] STOP = new byte[0];
+
+        final byte[] frame;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        long segment;
+
+        Pending(byte[] frame) {
+            this.frame = frame;
+        }
+
+        boolean isCommand() {
+            return frame == ROTATE || frame == STOP;
+        }
+    }
+}
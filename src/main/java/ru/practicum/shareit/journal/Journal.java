@@ -0,0 +1,25 @@
+package ru.practicum.shareit.journal;
+
+import java.util.List;
+
+/**
+ * Журнал изменений хранилищ в памяти. Изменение применяется в памяти только после того, как его
+ * записи надёжно сохранены; если запись не удалась, метод бросает исключение и изменение не применяется.
+ */
+public interface Journal {
+    Journal NOOP = new Journal() {
+        @Override
+        public void append(JournalEntry entry, Runnable apply) {
+            apply.run();
+        }
+
+        @Override
+        public void appendAll(List<? extends JournalEntry> entries, Runnable apply) {
+            apply.run();
+        }
+    };
+
+    void append(JournalEntry entry, Runnable apply);
+
+    void appendAll(List<? extends JournalEntry> entries, Runnable apply);
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный формат записи: длина данных, CRC32C данных, тип записи и её поля.
+ * Один и тот же формат используется в сегментах журнала и в снимках.
+ */
+final class JournalCodec {
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    // прежние форматы без версии и ИД запроса, только для чтения старых журналов
+    private static final byte USER_SAVED_V1 = 1;
+    private static final byte USER_DELETED = 2;
+    private static final byte ITEM_SAVED_V1 = 3;
+    private static final byte ITEMS_DELETED = 4;
+    private static final byte ITEM_SAVED_V2 = 5;
+    private static final byte REQUEST_SAVED = 6;
+    private static final byte USER_SAVED = 7;
+    private static final byte ITEM_SAVED = 8;
+    private static final long INITIAL_VERSION = 0;
+    private static final long NO_REQUEST = 0;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(JournalEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(0);
+            switch (entry) {
+                case JournalEntry.UserSaved user -> {
+                    out.writeByte(USER_SAVED);
+                    out.writeLong(user.id());
+                    writeString(out, user.name());
+                    writeString(out, user.email());
+                    out.writeLong(user.version());
+                }
+                case JournalEntry.UserDeleted user -> {
+                    out.writeByte(USER_DELETED);
+                    out.writeLong(user.id());
+                }
+                case JournalEntry.ItemSaved item -> {
+                    out.writeByte(ITEM_SAVED);
+                    out.writeLong(item.id());
+                    out.writeLong(item.ownerId());
+                    writeString(out, item.name());
+                    writeString(out, item.description());
+                    out.writeBoolean(item.available());
+                    out.writeLong(item.requestId() == null ? NO_REQUEST : item.requestId());
+                    out.writeLong(item.version());
+                }
+                case JournalEntry.ItemsDeleted items -> {
+                    out.writeByte(ITEMS_DELETED);
+                    out.writeLong(items.ownerId());
+                }
+                case JournalEntry.RequestSaved request -> {
+                    out.writeByte(REQUEST_SAVED);
+                    out.writeLong(request.id());
+                    out.writeLong(request.requestorId());
+                    writeString(out, request.description());
+                    out.writeLong(request.created().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(request.created().getNano());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] frame = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(frame, HEADER_SIZE, frame.length - HEADER_SIZE);
+        ByteBuffer.wrap(frame).putInt(frame.length - HEADER_SIZE).putInt((int) crc.getValue());
+        return frame;
+    }
+
+    /**
+     * Читает запись с текущей позиции. Для неполной или повреждённой записи возвращает null
+     * и оставляет позицию на её начале.
+     */
+    static JournalEntry decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            buffer.position(start);
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(buffer.position(), length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+        try {
+            JournalEntry entry = switch (payload.get()) {
+                case USER_SAVED_V1 -> new JournalEntry.UserSaved(payload.getLong(), readString(payload),
+                        readString(payload), INITIAL_VERSION);
+                case USER_SAVED -> new JournalEntry.UserSaved(payload.getLong(), readString(payload),
+                        readString(payload), payload.getLong());
+                case USER_DELETED -> new JournalEntry.UserDeleted(payload.getLong());
+                case ITEM_SAVED_V1 -> new JournalEntry.ItemSaved(payload.getLong(), payload.getLong(),
+                        readString(payload), readString(payload), payload.get() != 0, null, INITIAL_VERSION);
+                case ITEM_SAVED_V2 -> new JournalEntry.ItemSaved(payload.getLong(), payload.getLong(),
+                        readString(payload), readString(payload), payload.get() != 0, readRequestId(payload),
+                        INITIAL_VERSION);
+                case ITEM_SAVED -> new JournalEntry.ItemSaved(payload.getLong(), payload.getLong(),
+                        readString(payload), readString(payload), payload.get() != 0, readRequestId(payload),
+                        payload.getLong());
+                case ITEMS_DELETED -> new JournalEntry.ItemsDeleted(payload.getLong());
+                case REQUEST_SAVED -> new JournalEntry.RequestSaved(payload.getLong(), payload.getLong(),
+                        readString(payload), LocalDateTime.ofEpochSecond(payload.getLong(), payload.getInt(),
+                        ZoneOffset.UTC));
+                default -> null;
+            };
+            if (entry == null) {
+                buffer.position(start);
+                return null;
+            }
+            buffer.position(buffer.position() + length);
+            return entry;
+        } catch (BufferUnderflowException e) {
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Long readRequestId(ByteBuffer buffer) {
+        long requestId = buffer.getLong();
+        return requestId == NO_REQUEST ? null : requestId;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+@Configuration
+public class JournalConfig {
+
+    @Bean
+    @Profile("!durable | jdbc | compact | partitioned")
+    public Journal noopJournal() {
+        return Journal.NOOP;
+    }
+
+    /**
+     * Профиль durable: хранилища в памяти пишут журнал на диск и восстанавливаются из него при старте.
+     */
+    @Configuration
+    @Profile("durable & !jdbc & !compact & !partitioned")
+    @EnableScheduling
+    static class Durable {
+
+        @Bean(destroyMethod = "close")
+        public FileJournal fileJournal(@Value("${shareit.journal.dir}") Path directory,
+                                       @Value("${shareit.journal.segment-size}") long segmentSize) {
+            return new FileJournal(directory, segmentSize);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.journal;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала. Записи о сохранении несут полное состояние объекта, поэтому повторное
+ * применение поверх снимка, сделанного во время работы, даёт тот же результат.
+ */
+public sealed interface JournalEntry {
+
+    record UserSaved(long id, String name, String email, long version) implements JournalEntry {
+        public static UserSaved of(User user) {
+            return new UserSaved(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+        }
+    }
+
+    record UserDeleted(long id) implements JournalEntry {
+    }
+
+    record ItemSaved(long id, long ownerId, String name, String description, boolean available, Long requestId,
+                     long version) implements JournalEntry {
+        public static ItemSaved of(Item item) {
+            return new ItemSaved(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                    Boolean.TRUE.equals(item.getAvailable()), item.getRequestId(), item.getVersion());
+        }
+    }
+
+    record ItemsDeleted(long ownerId) implements JournalEntry {
+    }
+
+    record RequestSaved(long id, long requestorId, String description, LocalDateTime created)
+            implements JournalEntry {
+        public static RequestSaved of(ItemRequest request) {
+            return new RequestSaved(request.getId(), request.getRequestor().getId(), request.getDescription(),
+                    request.getCreated());
+        }
+    }
+}
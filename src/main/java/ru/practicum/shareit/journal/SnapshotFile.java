@@ -0,0 +1,175 @@
+package ru.practicum.shareit.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Снимок состояния: заголовок (метка, версия, номер первого сегмента журнала после снимка,
+ * число записей) и записи в формате журнала. Записи пишутся и читаются через отображение файла в память
+ * скользящими участками, поэтому размер снимка не ограничен 2 ГБ одного {@link MappedByteBuffer}.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x53484954;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private SnapshotFile() {
+    }
+
+    static Path path(Path directory, long segment) {
+        return directory.resolve(String.format("snapshot-%020d.bin", segment));
+    }
+
+    static long write(Path path, long segment, Consumer<Consumer<JournalEntry>> source) throws IOException {
+        return write(path, segment, source, WINDOW_SIZE);
+    }
+
+    static long write(Path path, long segment, Consumer<Consumer<JournalEntry>> source, long windowSize)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedOutput out = new MappedOutput(channel, HEADER_SIZE, windowSize);
+            long[] count = {0};
+            source.accept(entry -> {
+                out.put(JournalCodec.encode(entry));
+                count[0]++;
+            });
+            long size = out.finish();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(segment).putLong(count[0]);
+            header.force();
+            channel.truncate(size);
+            channel.force(true);
+            return count[0];
+        }
+    }
+
+    /**
+     * Передаёт записи снимка получателю и возвращает номер сегмента журнала, с которого продолжать.
+     */
+    static long read(Path path, Consumer<JournalEntry> sink) throws IOException {
+        return read(path, sink, WINDOW_SIZE);
+    }
+
+    static long read(Path path, Consumer<JournalEntry> sink, long windowSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), HEADER_SIZE));
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Файл " + path + " не является снимком.");
+            }
+            long segment = header.getLong();
+            long count = header.getLong();
+            MappedInput in = new MappedInput(channel, HEADER_SIZE, windowSize);
+            for (long i = 0; i < count; i++) {
+                JournalEntry entry = in.next();
+                if (entry == null) {
+                    throw new IOException("Снимок " + path + " повреждён на записи " + i + ".");
+                }
+                sink.accept(entry);
+            }
+            return segment;
+        }
+    }
+
+    static int checkedSize(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Файл больше 2 ГБ не поддерживается.");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Запись через участок отображения; запись, не помещающаяся в остаток участка, начинает следующий.
+     */
+    private static class MappedOutput {
+        private final FileChannel channel;
+        private final long windowSize;
+        private long base;
+        private MappedByteBuffer buffer;
+
+        MappedOutput(FileChannel channel, long start, long windowSize) throws IOException {
+            this.channel = channel;
+            this.windowSize = windowSize;
+            map(start, windowSize);
+        }
+
+        void put(byte[] frame) {
+            if (buffer.remaining() < frame.length) {
+                try {
+                    buffer.force();
+                    map(base + buffer.position(), Math.max(windowSize, frame.length));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            buffer.put(frame);
+        }
+
+        /**
+         * Сбрасывает последний участок на диск и возвращает размер записанных данных.
+         */
+        long finish() {
+            buffer.force();
+            return base + buffer.position();
+        }
+
+        private void map(long start, long size) throws IOException {
+            base = start;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+    }
+
+    /**
+     * Чтение через участок отображения; запись, пересекающая конец участка, читается из участка,
+     * отображённого с её начала.
+     */
+    private static class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private final long windowSize;
+        private long base;
+        private MappedByteBuffer buffer;
+
+        MappedInput(FileChannel channel, long start, long windowSize) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = windowSize;
+            map(Math.min(start, size), windowSize);
+        }
+
+        /**
+         * Следующая запись; null — данные кончились или запись повреждена.
+         */
+        JournalEntry next() throws IOException {
+            while (true) {
+                JournalEntry entry = JournalCodec.decode(buffer);
+                if (entry != null || base + buffer.limit() == size) {
+                    return entry;
+                }
+                long needed = Math.max(windowSize, JournalCodec.HEADER_SIZE);
+                if (buffer.remaining() >= JournalCodec.HEADER_SIZE) {
+                    long frame = JournalCodec.HEADER_SIZE + (long) buffer.getInt(buffer.position());
+                    if (frame <= buffer.remaining()) {
+                        // запись целиком в участке, но не разобралась
+                        return null;
+                    }
+                    needed = Math.max(windowSize, frame);
+                }
+                map(base + buffer.position(), needed);
+            }
+        }
+
+        private void map(long start, long window) throws IOException {
+            base = start;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(Math.min(window, size - start), Integer.MAX_VALUE));
+        }
+    }
+}
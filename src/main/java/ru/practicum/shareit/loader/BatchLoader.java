@@ -0,0 +1,93 @@
+package ru.practicum.shareit.loader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Загрузчик в духе DataLoader: ключи копятся через {@link #prime}, а ближайший {@link #load}
+ * или {@link #loadAll} забирает все накопленные одной пакетной выборкой. Результат, в том числе
+ * отсутствие значения, запоминается до конца запроса. Не потокобезопасен.
+ */
+public class BatchLoader<K, V> {
+    private final Function<Collection<K>, ? extends Collection<V>> batch;
+    private final Function<V, K> keyOf;
+    private final Map<K, V> loaded = new HashMap<>();
+    private final Set<K> pending = new LinkedHashSet<>();
+    private int batches;
+
+    public BatchLoader(Function<Collection<K>, ? extends Collection<V>> batch, Function<V, K> keyOf) {
+        this.batch = batch;
+        this.keyOf = keyOf;
+    }
+
+    public void prime(K key) {
+        if (!loaded.containsKey(key)) {
+            pending.add(key);
+        }
+    }
+
+    public void primeAll(Collection<K> keys) {
+        keys.forEach(this::prime);
+    }
+
+    /**
+     * Значение по ключу или null, если его нет в хранилище.
+     */
+    public V load(K key) {
+        prime(key);
+        dispatch();
+        return loaded.get(key);
+    }
+
+    /**
+     * Найденные значения в порядке ключей; отсутствующих ключей в результате нет.
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        primeAll(keys);
+        dispatch();
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = loaded.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Забывает значение после записи: следующий {@link #load} прочитает его из хранилища заново.
+     */
+    public void forget(K key) {
+        loaded.remove(key);
+    }
+
+    /**
+     * Сколько пакетных выборок выполнено с начала запроса.
+     */
+    public int batches() {
+        return batches;
+    }
+
+    private void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(pending);
+        pending.clear();
+        batches++;
+        for (V value : batch.apply(keys)) {
+            loaded.put(keyOf.apply(value), value);
+        }
+        for (K key : keys) {
+            loaded.putIfAbsent(key, null);
+        }
+    }
+}
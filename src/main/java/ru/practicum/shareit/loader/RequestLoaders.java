@@ -0,0 +1,65 @@
+package ru.practicum.shareit.loader;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Загрузчики пользователей, вещей и запросов, общие для всего HTTP-запроса: хранятся в атрибутах запроса,
+ * поэтому повторные обращения к одному ИД не доходят до хранилища. Вне веб-запроса
+ * (тесты, восстановление) каждый вызов получает новый загрузчик.
+ */
+@Component
+@AllArgsConstructor
+public class RequestLoaders {
+    private static final String ATTRIBUTE = RequestLoaders.class.getName();
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    public BatchLoader<Long, User> users() {
+        return current().users;
+    }
+
+    public BatchLoader<Long, Item> items() {
+        return current().items;
+    }
+
+    public BatchLoader<Long, ItemRequest> requests() {
+        return current().requests;
+    }
+
+    private Loaders current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new Loaders(userRepository, itemRepository, itemRequestRepository);
+        }
+        Loaders loaders = (Loaders) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaders == null) {
+            loaders = new Loaders(userRepository, itemRepository, itemRequestRepository);
+            attributes.setAttribute(ATTRIBUTE, loaders, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loaders;
+    }
+
+    private static final class Loaders {
+        private final BatchLoader<Long, User> users;
+        private final BatchLoader<Long, Item> items;
+        private final BatchLoader<Long, ItemRequest> requests;
+
+        private Loaders(UserRepository userRepository, ItemRepository itemRepository,
+                        ItemRequestRepository itemRequestRepository) {
+            users = new BatchLoader<>(userRepository::getUsersByIds, User::getId);
+            items = new BatchLoader<>(itemRepository::getItemsByIds, Item::getId);
+            requests = new BatchLoader<>(itemRequestRepository::getRequestsByIds, ItemRequest::getId);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Predicate;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Таймеры методов классов с {@code @Timed}. Регистрация гейджей хранилищ ({@code bindTo})
+     * не замеряется.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        Predicate<ProceedingJoinPoint> skipBinders = joinPoint -> "bindTo".equals(joinPoint.getSignature().getName());
+        return new TimedAspect(registry, skipBinders);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Параметры страницы: непрозрачный курсор (последний ИД предыдущей страницы),
+ * смещение от курсора и размер. Без размера страница не ограничена.
+ */
+@Data
+public class PageParams {
+    public static final PageParams ALL = new PageParams(0, 0, Integer.MAX_VALUE);
+
+    private final long afterId;
+    private final int from;
+    private final int size;
+
+    public static PageParams of(int from, Integer size, String cursor) {
+        if (from < 0 || (size != null && size <= 0)) {
+            throw new IllegalArgumentException("Некорректные параметры страницы.");
+        }
+        return new PageParams(decodeCursor(cursor), from, size == null ? Integer.MAX_VALUE : size);
+    }
+
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new IllegalArgumentException("Некорректный курсор страницы.");
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор страницы.", e);
+        }
+    }
+}
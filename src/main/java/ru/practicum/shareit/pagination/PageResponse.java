@@ -0,0 +1,27 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public class PageResponse {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static <T> ResponseEntity<List<T>> of(List<T> page, PageParams params, ToLongFunction<T> idExtractor) {
+        return of(page, params, idExtractor, null);
+    }
+
+    public static <T> ResponseEntity<List<T>> of(List<T> page, PageParams params, ToLongFunction<T> idExtractor,
+                                                 String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (!page.isEmpty() && page.size() == params.getSize()) {
+            long lastId = idExtractor.applyAsLong(page.get(page.size() - 1));
+            builder.header(NEXT_CURSOR_HEADER, PageParams.encodeCursor(lastId));
+        }
+        return builder.body(page);
+    }
+}
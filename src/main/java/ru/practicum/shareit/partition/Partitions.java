@@ -0,0 +1,113 @@
+package ru.practicum.shareit.partition;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Разбиение хранилищ в памяти на разделы по владельцу (профиль {@code partitioned}). Раздел
+ * определяется по ИД: раздел {@code p} из {@code N} выдаёт ИД {@code p + 1, p + 1 + N, ...}, так что
+ * пользователь, его вещи и их ИД живут в одном разделе. Изменения раздела выполняет его единственный
+ * поток-писатель, поэтому писатели разных разделов не делят ни счётчиков, ни индексов. Чтение идёт
+ * из потока запроса без очереди.
+ */
+@Component
+@Profile("partitioned & !jdbc & !compact")
+public class Partitions implements MeterBinder {
+    private final ThreadPoolExecutor[] writers;
+
+    public Partitions(@Value("${shareit.partitions}") int count) {
+        int partitions = count > 0 ? count : Runtime.getRuntime().availableProcessors();
+        this.writers = new ThreadPoolExecutor[partitions];
+        for (int i = 0; i < partitions; i++) {
+            writers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    Thread.ofPlatform().name("shareit-partition-" + i).daemon().factory());
+        }
+    }
+
+    public int count() {
+        return writers.length;
+    }
+
+    public int of(long id) {
+        return (int) Math.floorMod(id - 1, (long) writers.length);
+    }
+
+    public long firstId(int partition) {
+        return partition + 1;
+    }
+
+    /**
+     * Выполняет изменение в потоке-писателе раздела и ждёт результата.
+     */
+    public <T> T write(int partition, Supplier<T> change) {
+        Future<T> result = writers[partition].submit(change::get);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Прервано ожидание записи в раздел " + partition + ".", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void write(int partition, Runnable change) {
+        write(partition, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    /**
+     * Выполняет чтение во всех разделах параллельно; результаты в порядке разделов.
+     */
+    public <T> List<T> fanOut(IntFunction<T> read) {
+        List<CompletableFuture<T>> others = new ArrayList<>(writers.length - 1);
+        for (int i = 1; i < writers.length; i++) {
+            int partition = i;
+            others.add(CompletableFuture.supplyAsync(() -> read.apply(partition)));
+        }
+        List<T> results = new ArrayList<>(writers.length);
+        results.add(read.apply(0));
+        others.forEach(other -> results.add(other.join()));
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor writer : writers) {
+            writer.shutdown();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < writers.length; i++) {
+            Gauge.builder("shareit.partition.queue", writers[i], writer -> writer.getQueue().size())
+                    .tag("partition", Integer.toString(i))
+                    .register(registry);
+        }
+    }
+}
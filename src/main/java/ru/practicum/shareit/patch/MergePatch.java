@@ -0,0 +1,39 @@
+package ru.practicum.shareit.patch;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+
+/**
+ * Общее для PATCH по JSON Merge Patch (RFC 7396): тип содержимого и ответ с учётом
+ * заголовка {@code Prefer} (RFC 7240). При {@code return=minimal} тело ответа не строится.
+ */
+public class MergePatch {
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+    public static final String PREFER_HEADER = "Prefer";
+
+    private static final String RETURN_MINIMAL = "return=minimal";
+
+    public static boolean isMinimal(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.trim().toLowerCase(Locale.ROOT).startsWith(RETURN_MINIMAL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> response(T body, boolean minimal) {
+        if (minimal) {
+            return ResponseEntity.noContent().header("Preference-Applied", RETURN_MINIMAL).build();
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    public static IllegalArgumentException fieldRemoved(String field) {
+        return new IllegalArgumentException("Поле " + field + " нельзя удалить.");
+    }
+}
@@ -1,12 +1,53 @@
 package ru.practicum.shareit.request.controller;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.PageResponse;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Validated
 @RestController
+@AllArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto createRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                        @RequestBody @Valid ItemRequestDto itemRequestDto) {
+        return itemRequestService.addRequest(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDto>> getOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                               @RequestParam(required = false) @Positive Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        PageParams page = PageParams.of(from, size, cursor);
+        return PageResponse.of(itemRequestService.getOwnRequests(userId, page), page, ItemRequestDto::getId);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<List<ItemRequestDto>> getOtherRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                 @RequestParam(required = false) @Positive Integer size,
+                                                                 @RequestParam(required = false) String cursor) {
+        PageParams page = PageParams.of(from, size, cursor);
+        return PageResponse.of(itemRequestService.getOtherRequests(userId, page), page, ItemRequestDto::getId);
+    }
+
+    @GetMapping("/{id}")
+    public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @PathVariable @Positive long id) {
+        return itemRequestService.getRequestById(userId, id);
+    }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request.mapper;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public class ItemRequestMapper {
+
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemDto> items) {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setId(itemRequest.getId());
+        itemRequestDto.setDescription(itemRequest.getDescription());
+        itemRequestDto.setCreated(itemRequest.getCreated());
+        itemRequestDto.setItems(items);
+        return itemRequestDto;
+    }
+
+    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto, User requestor) {
+        return new ItemRequest(
+                itemRequestDto.getDescription(),
+                requestor
+        );
+    }
+}
@@ -5,13 +5,10 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @Data
 public class ItemRequest {
-    public Long id;
+    private Long id;
     private final String description;
     private final User requestor;
-    public final LocalDateTime created;
+    private LocalDateTime created;
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.request.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.journal.Journal;
+import ru.practicum.shareit.journal.JournalEntry;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Запросы упорядочены по ИД в списке с пропусками. ИД и время создания назначаются вместе
+ * под одной блокировкой, поэтому порядок ИД совпадает с порядком времени, и лента от новых
+ * к старым читается с курсора без сортировки.
+ */
+@Repository
+@Timed("shareit.repository")
+public class ItemRequestMemoryRepository implements ItemRequestRepository, MeterBinder {
+    private final ConcurrentNavigableMap<Long, ItemRequest> requests = new ConcurrentSkipListMap<>();
+    private final Map<Long, NavigableSet<Long>> requestorRequests = new ConcurrentHashMap<>();
+    private final Lock sequence = new ReentrantLock();
+    private final Journal journal;
+    private long lastId;
+    private LocalDateTime lastCreated = LocalDateTime.MIN;
+
+    public ItemRequestMemoryRepository() {
+        this(Journal.NOOP);
+    }
+
+    @Autowired
+    public ItemRequestMemoryRepository(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public ItemRequest addRequest(ItemRequest request) {
+        sequence.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            lastCreated = now.isAfter(lastCreated) ? now : lastCreated;
+            request.setId(++lastId);
+            request.setCreated(lastCreated);
+        } finally {
+            sequence.unlock();
+        }
+        journal.append(JournalEntry.RequestSaved.of(request), () -> insert(request));
+        return request;
+    }
+
+    @Override
+    public ItemRequest getRequestById(long id) {
+        return requests.get(id);
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsByIds(Collection<Long> ids) {
+        List<ItemRequest> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ItemRequest request = requests.get(id);
+            if (request != null) {
+                found.add(request);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsByRequestorId(long requestorId, PageParams page) {
+        NavigableSet<Long> ids = requestorRequests.get(requestorId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        // множество упорядочено по убыванию, хвост после курсора — более старые запросы
+        Collection<Long> older = page.getAfterId() > 0 ? ids.tailSet(page.getAfterId(), false) : ids;
+        return older.stream()
+                .map(requests::get)
+                .filter(Objects::nonNull)
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemRequest> getRequestsOfOthers(long userId, PageParams page) {
+        ConcurrentNavigableMap<Long, ItemRequest> older =
+                page.getAfterId() > 0 ? requests.headMap(page.getAfterId(), false) : requests;
+        return older.descendingMap().values().stream()
+                .filter(request -> request.getRequestor().getId() != userId)
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    public void forEachRequest(Consumer<ItemRequest> action) {
+        requests.values().forEach(action);
+    }
+
+    public void replayRequestSaved(ItemRequest request) {
+        sequence.lock();
+        try {
+            insert(request);
+            lastId = Math.max(lastId, request.getId());
+            lastCreated = request.getCreated().isAfter(lastCreated) ? request.getCreated() : lastCreated;
+        } finally {
+            sequence.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.requests.count", requests, Map::size).register(registry);
+    }
+
+    private void insert(ItemRequest request) {
+        requests.put(request.getId(), request);
+        requestorRequests.computeIfAbsent(request.getRequestor().getId(),
+                key -> new ConcurrentSkipListSet<>(Comparator.reverseOrder())).add(request.getId());
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.request.repository;
+
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Запросы вещей. Страницы идут от новых к старым, курсор — ИД последнего запроса предыдущей страницы.
+ */
+public interface ItemRequestRepository {
+
+    /**
+     * Назначает запросу ИД и время создания.
+     */
+    ItemRequest addRequest(ItemRequest request);
+
+    ItemRequest getRequestById(long id);
+
+    /**
+     * Найденные запросы в произвольном порядке; отсутствующих ИД в результате нет.
+     */
+    List<ItemRequest> getRequestsByIds(Collection<Long> ids);
+
+    List<ItemRequest> getRequestsByRequestorId(long requestorId, PageParams page);
+
+    List<ItemRequest> getRequestsOfOthers(long userId, PageParams page);
+}
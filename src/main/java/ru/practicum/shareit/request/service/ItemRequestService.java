@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto addRequest(long userId, ItemRequestDto itemRequestDto);
+
+    List<ItemRequestDto> getOwnRequests(long userId, PageParams page);
+
+    List<ItemRequestDto> getOtherRequests(long userId, PageParams page);
+
+    ItemRequestDto getRequestById(long userId, long requestId);
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final RequestLoaders loaders;
+
+    @Override
+    public ItemRequestDto addRequest(long userId, ItemRequestDto itemRequestDto) {
+        User requestor = loaders.users().load(userId);
+        isUserPresent(requestor, userId);
+        ItemRequest request = itemRequestRepository.addRequest(
+                ItemRequestMapper.toItemRequest(itemRequestDto, requestor));
+        log.info("Добавлен новый запрос вещи с ID = {}", request.getId());
+        return ItemRequestMapper.toItemRequestDto(request, new ArrayList<>());
+    }
+
+    @Override
+    public List<ItemRequestDto> getOwnRequests(long userId, PageParams page) {
+        isUserPresent(loaders.users().load(userId), userId);
+        List<ItemRequest> requests = itemRequestRepository.getRequestsByRequestorId(userId, page);
+        log.info("Запросов пользователя с ид {} на странице: {}. Список возвращён.", userId, requests.size());
+        return withAnswers(requests);
+    }
+
+    @Override
+    public List<ItemRequestDto> getOtherRequests(long userId, PageParams page) {
+        isUserPresent(loaders.users().load(userId), userId);
+        List<ItemRequest> requests = itemRequestRepository.getRequestsOfOthers(userId, page);
+        log.info("Запросов других пользователей на странице: {}. Список возвращён.", requests.size());
+        return withAnswers(requests);
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(long userId, long requestId) {
+        isUserPresent(loaders.users().load(userId), userId);
+        ItemRequest request = loaders.requests().load(requestId);
+        if (request == null) {
+            throw new NotFoundException("Запрос с ИД " + requestId + " отсутствует в БД.");
+        }
+        log.info("Запрос с ID {} возвращён.", requestId);
+        return withAnswers(List.of(request)).get(0);
+    }
+
+    /**
+     * Ответы на все запросы страницы загружаются одной выборкой и раскладываются по запросам.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = requests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> answers = new HashMap<>();
+        for (Item item : itemRepository.getItemsByRequestIds(ids)) {
+            answers.computeIfAbsent(item.getRequestId(), key -> new ArrayList<>()).add(ItemMapper.toItemDto(item));
+        }
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private void isUserPresent(User user, Long id) {
+        if (user == null) {
+            throw new NotFoundException("Пользователь с ИД " + id + " отсутствует в БД.");
+        }
+    }
+}
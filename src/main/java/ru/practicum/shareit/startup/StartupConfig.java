@@ -0,0 +1,23 @@
+package ru.practicum.shareit.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.ShareItApp;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * При ленивой инициализации (профиль {@code fast-startup}) бины приложения всё равно создаются
+     * при старте: контроллеры, сервисы и хранилища не откладываются до первого запроса, а восстановление
+     * из журнала и регистрация метрик не пропускаются. Лениво создаётся только инфраструктура,
+     * которой нет на пути запроса.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        String basePackage = ShareItApp.class.getPackageName();
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && beanType.getName().startsWith(basePackage + ".");
+    }
+}
@@ -2,10 +2,21 @@ package ru.practicum.shareit.user.controller;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.export.NdjsonResponseWriter;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.pagination.PageResponse;
+import ru.practicum.shareit.patch.MergePatch;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
@@ -19,22 +30,33 @@ import java.util.List;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
     @PostMapping
     public UserDto createUser(@RequestBody @Valid UserDto userDto) {
         return userService.addUser(userDto);
     }
 
-    @PatchMapping("/{id}")
-    public UserDto updateUser(@RequestBody @Valid UserDto userDto,
-                              @PathVariable @Positive long id) {
-        userDto.setId(id);
-        return userService.updateUser(userDto);
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, MergePatch.MEDIA_TYPE})
+    public ResponseEntity<UserDto> updateUser(@RequestBody @Valid UserPatchDto patch,
+                                              @PathVariable @Positive long id,
+                                              @RequestHeader(value = MergePatch.PREFER_HEADER, required = false)
+                                              String prefer) {
+        boolean minimal = MergePatch.isMinimal(prefer);
+        return MergePatch.response(userService.updateUser(id, patch, !minimal), minimal);
     }
 
+    /**
+     * Версия берётся из DTO в кэше: повторный условный GET не обращается к хранилищу.
+     */
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable @Positive long id) {
-        return userService.getUserById(id);
+    public ResponseEntity<UserDto> getUserById(@PathVariable @Positive long id, WebRequest request) {
+        UserDto user = userService.getUserById(id);
+        String etag = EntityTag.of("user", id, user.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(user);
     }
 
     @DeleteMapping("/{id}")
@@ -43,7 +65,15 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> findAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> findAllUsers(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                      @RequestParam(required = false) @Positive Integer size,
+                                                      @RequestParam(required = false) String cursor) {
+        PageParams page = PageParams.of(from, size, cursor);
+        return PageResponse.of(userService.getAllUsers(page), page, UserDto::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportAllUsers() {
+        return ndjsonResponseWriter.write(userService::exportAllUsers);
     }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import lombok.Data;
 
@@ -9,4 +10,6 @@ public class UserDto {
     private final String name;
     @Email
     private final String email;
+    @JsonIgnore
+    private long version;
 }
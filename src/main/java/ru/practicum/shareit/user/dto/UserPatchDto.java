@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import jakarta.validation.constraints.Email;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.user.model.UserField;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Частичное обновление пользователя: запоминает, какие поля пришли в теле, в том числе со значением null.
+ */
+@Getter
+@ToString
+public class UserPatchDto {
+    private String name;
+    @Email
+    private String email;
+    @JsonIgnore
+    private final Set<UserField> present = EnumSet.noneOf(UserField.class);
+
+    @JsonSetter("name")
+    public void setName(String name) {
+        this.name = name;
+        present.add(UserField.NAME);
+    }
+
+    @JsonSetter("email")
+    public void setEmail(String email) {
+        this.email = email;
+        present.add(UserField.EMAIL);
+    }
+
+    public boolean has(UserField field) {
+        return present.contains(field);
+    }
+}
@@ -1,16 +1,27 @@
 package ru.practicum.shareit.user.mapper;
 
+import ru.practicum.shareit.patch.MergePatch;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 public class UserMapper {
 
+    /**
+     * Версия читается раньше полей, см. {@link ru.practicum.shareit.item.mapper.ItemMapper#toItemDto}.
+     */
     public static UserDto toUserDto(User user) {
+        long version = user.getVersion();
         UserDto userDto = new UserDto(
                 user.getName(),
                 user.getEmail()
         );
         userDto.setId(user.getId());
+        userDto.setVersion(version);
         return userDto;
     }
 
@@ -20,4 +31,27 @@ public class UserMapper {
                 userDto.getEmail()
         );
     }
+
+    /**
+     * Переносит в пользователя пришедшие поля патча и возвращает те, что действительно изменились.
+     * Все поля пользователя обязательны, поэтому null в патче отклоняется до любых изменений.
+     */
+    public static Set<UserField> applyPatch(User user, UserPatchDto patch) {
+        if (patch.has(UserField.NAME) && patch.getName() == null) {
+            throw MergePatch.fieldRemoved("name");
+        }
+        if (patch.has(UserField.EMAIL) && patch.getEmail() == null) {
+            throw MergePatch.fieldRemoved("email");
+        }
+        Set<UserField> changed = EnumSet.noneOf(UserField.class);
+        if (patch.has(UserField.NAME) && !patch.getName().equals(user.getName())) {
+            user.setName(patch.getName());
+            changed.add(UserField.NAME);
+        }
+        if (patch.has(UserField.EMAIL) && !patch.getEmail().equals(user.getEmail())) {
+            user.setEmail(patch.getEmail());
+            changed.add(UserField.EMAIL);
+        }
+        return changed;
+    }
 }
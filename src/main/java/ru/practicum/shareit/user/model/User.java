@@ -18,9 +18,20 @@ public class User {
     @NotNull
     @NotBlank
     private String email;
+    // растёт с каждым изменением пользователя, из него строится ETag; хранилище записывает её после полей
+    private volatile long version;
 
     public User(String name, String email) {
         this.name = name;
         this.email = email;
     }
+
+    /**
+     * Отдельная копия пользователя: на ней сервис готовит новое состояние.
+     */
+    public User(User user) {
+        this(user.getName(), user.getEmail());
+        this.version = user.getVersion();
+        this.id = user.getId();
+    }
 }
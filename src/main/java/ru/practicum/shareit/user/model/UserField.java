@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.model;
+
+/**
+ * Изменяемые поля пользователя, присутствующие в частичном обновлении.
+ */
+public enum UserField {
+    NAME,
+    EMAIL
+}
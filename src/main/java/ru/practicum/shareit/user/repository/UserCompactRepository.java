@@ -0,0 +1,268 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Пользователи по столбцам: строка таблицы — ИД минус один, живые строки отмечены в битовой маске.
+ * Почта индексируется открытой адресацией по номерам строк без упаковки ключей.
+ * Объекты {@link User} создаются только при чтении.
+ */
+@Repository
+@Profile("compact & !jdbc")
+@Timed("shareit.repository")
+public class UserCompactRepository implements UserRepository, MeterBinder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int EXPORT_CHUNK = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet alive = new BitSet();
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] emails = new String[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int rows;
+    private int count;
+    // номер строки + 1, ноль — пустая ячейка
+    private int[] emailSlots = new int[INITIAL_CAPACITY * 2];
+
+    @Override
+    public User addUser(User user) {
+        lock.writeLock().lock();
+        try {
+            if (findRow(user.getEmail()) >= 0) {
+                return null;
+            }
+            if (rows == names.length) {
+                names = Arrays.copyOf(names, rows * 2);
+                emails = Arrays.copyOf(emails, rows * 2);
+                versions = Arrays.copyOf(versions, rows * 2);
+            }
+            int row = rows++;
+            names[row] = user.getName();
+            emails[row] = user.getEmail();
+            versions[row] = user.getVersion();
+            alive.set(row);
+            indexEmail(row);
+            count++;
+            user.setId(row + 1L);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmailPresent(String userEmail) {
+        lock.readLock().lock();
+        try {
+            return findRow(userEmail) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User getUserById(Long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0 ? null : toUser(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                int row = rowOf(id);
+                if (row >= 0) {
+                    users.add(toUser(row));
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public UpdateResult updateUser(User user, Set<UserField> changed) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(user.getId());
+            if (row < 0 || versions[row] != user.getVersion()) {
+                return UpdateResult.STALE;
+            }
+            if (changed.contains(UserField.EMAIL)) {
+                if (findRow(user.getEmail()) >= 0) {
+                    return UpdateResult.EMAIL_TAKEN;
+                }
+                unindexEmail(row);
+                emails[row] = user.getEmail();
+                indexEmail(row);
+            }
+            names[row] = user.getName();
+            versions[row]++;
+            user.setVersion(versions[row]);
+            return UpdateResult.UPDATED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            if (row < 0) {
+                return;
+            }
+            unindexEmail(row);
+            alive.clear(row);
+            names[row] = null;
+            emails[row] = null;
+            count--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers(PageParams page) {
+        lock.readLock().lock();
+        try {
+            List<User> result = new ArrayList<>();
+            int skip = page.getFrom();
+            for (int row = alive.nextSetBit(firstRowAfter(page.getAfterId()));
+                 row >= 0 && result.size() < page.getSize(); row = alive.nextSetBit(row + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    result.add(toUser(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        // выгрузка идёт порциями, чтобы медленный получатель не держал блокировку
+        long afterId = 0;
+        List<User> chunk;
+        do {
+            chunk = getAllUsers(new PageParams(afterId, 0, EXPORT_CHUNK));
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.users.count", this, repository -> repository.count).register(registry);
+    }
+
+    private int rowOf(Long id) {
+        if (id == null || id < 1 || id > rows) {
+            return -1;
+        }
+        int row = (int) (id - 1);
+        return alive.get(row) ? row : -1;
+    }
+
+    private static int firstRowAfter(long afterId) {
+        return (int) Math.min(Math.max(afterId, 0), Integer.MAX_VALUE);
+    }
+
+    private User toUser(int row) {
+        User user = new User(names[row], emails[row]);
+        user.setId(row + 1L);
+        user.setVersion(versions[row]);
+        return user;
+    }
+
+    private int findRow(String email) {
+        int mask = emailSlots.length - 1;
+        for (int i = slotOf(email, mask); emailSlots[i] != 0; i = (i + 1) & mask) {
+            int row = emailSlots[i] - 1;
+            if (emails[row].equals(email)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void indexEmail(int row) {
+        if ((count + 1) * 2 > emailSlots.length) {
+            int[] old = emailSlots;
+            emailSlots = new int[old.length * 2];
+            for (int slot : old) {
+                if (slot != 0) {
+                    insertSlot(slot - 1);
+                }
+            }
+        }
+        insertSlot(row);
+    }
+
+    private void insertSlot(int row) {
+        int mask = emailSlots.length - 1;
+        int i = slotOf(emails[row], mask);
+        while (emailSlots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        emailSlots[i] = row + 1;
+    }
+
+    /**
+     * Удаление со сдвигом назад: следующие записи кластера переносятся в освободившуюся ячейку,
+     * если она лежит между их домашней ячейкой и текущей, поэтому надгробия не нужны.
+     */
+    private void unindexEmail(int row) {
+        int mask = emailSlots.length - 1;
+        int hole = slotOf(emails[row], mask);
+        while (emailSlots[hole] != row + 1) {
+            hole = (hole + 1) & mask;
+        }
+        for (int i = (hole + 1) & mask; emailSlots[i] != 0; i = (i + 1) & mask) {
+            int home = slotOf(emails[emailSlots[i] - 1], mask);
+            boolean staysPut = hole <= i ? hole < home && home <= i : hole < home || home <= i;
+            if (!staysPut) {
+                emailSlots[hole] = emailSlots[i];
+                hole = i;
+            }
+        }
+        emailSlots[hole] = 0;
+    }
+
+    private static int slotOf(String email, int mask) {
+        int hash = email.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
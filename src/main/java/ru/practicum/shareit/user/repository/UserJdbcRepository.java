@@ -0,0 +1,136 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("jdbc")
+@AllArgsConstructor
+@Timed("shareit.repository")
+public class UserJdbcRepository implements UserRepository, MeterBinder {
+    private static final String INSERT = "INSERT INTO users (name, email) VALUES (?, ?)";
+    private static final String EXISTS_BY_EMAIL = "SELECT COUNT(*) FROM users WHERE email = ?";
+    private static final String SELECT_BY_ID = "SELECT id, name, email, version FROM users WHERE id = ?";
+    private static final String SELECT_BY_IDS = "SELECT id, name, email, version FROM users WHERE id IN (%s)";
+    private static final String SELECT_PAGE =
+            "SELECT id, name, email, version FROM users WHERE id > ? ORDER BY id LIMIT ? OFFSET ?";
+    private static final String SELECT_ALL = "SELECT id, name, email, version FROM users ORDER BY id";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final String COUNT = "SELECT COUNT(*) FROM users";
+    private static final String UPDATE =
+            "UPDATE users SET name = ?, email = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String DELETE = "DELETE FROM users WHERE id = ?";
+
+    private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> {
+        User user = new User(rs.getString("name"), rs.getString("email"));
+        user.setId(rs.getLong("id"));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public User addUser(User user) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT, new String[]{"id"});
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+        user.setId(Objects.requireNonNull(keyHolder.getKey()).longValue());
+        return user;
+    }
+
+    @Override
+    public boolean isEmailPresent(String userEmail) {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_BY_EMAIL, Integer.class, userEmail);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public User getUserById(Long id) {
+        List<User> users = jdbcTemplate.query(SELECT_BY_ID, USER_ROW_MAPPER, id);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(String.format(SELECT_BY_IDS, placeholders), USER_ROW_MAPPER, ids.toArray());
+    }
+
+    /**
+     * Версия растёт в самой базе, а условие на прежнюю версию не даёт затереть параллельное изменение.
+     */
+    @Override
+    public UpdateResult updateUser(User user, Set<UserField> changed) {
+        try {
+            if (jdbcTemplate.update(UPDATE, user.getName(), user.getEmail(), user.getId(), user.getVersion()) == 0) {
+                return UpdateResult.STALE;
+            }
+        } catch (DuplicateKeyException e) {
+            return UpdateResult.EMAIL_TAKEN;
+        }
+        user.setVersion(user.getVersion() + 1);
+        return UpdateResult.UPDATED;
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        jdbcTemplate.update(DELETE, id);
+    }
+
+    @Override
+    public List<User> getAllUsers(PageParams page) {
+        return jdbcTemplate.query(SELECT_PAGE, USER_ROW_MAPPER, page.getAfterId(), page.getSize(), page.getFrom());
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_ALL);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(USER_ROW_MAPPER.mapRow(rs, rs.getRow()))));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.users.count", jdbcTemplate, jdbc -> jdbc.queryForObject(COUNT, Long.class))
+                .register(registry);
+    }
+}
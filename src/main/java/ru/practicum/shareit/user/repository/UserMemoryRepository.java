@@ -1,25 +1,78 @@
 package ru.practicum.shareit.user.repository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.journal.Journal;
+import ru.practicum.shareit.journal.JournalEntry;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
-public class UserMemoryRepository implements UserRepository {
-    private final Map<Long, User> userMap = new HashMap<>();
-    private final Map<String, User> usersEmailMap = new HashMap<>();
-    private long userId = 1;
+@Profile("!jdbc & !compact & !partitioned")
+@Timed("shareit.repository")
+public class UserMemoryRepository implements UserRepository, MeterBinder {
+    private static final int LOCK_STRIPES = 64;
+
+    private final NavigableMap<Long, User> userMap = new ConcurrentSkipListMap<>();
+    private final Map<String, User> usersEmailMap = new ConcurrentHashMap<>();
+    private final AtomicLong userId;
+    private final long idStep;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+    private final Journal journal;
+
+    public UserMemoryRepository() {
+        this(Journal.NOOP);
+    }
+
+    @Autowired
+    public UserMemoryRepository(Journal journal) {
+        this(journal, 1, 1);
+    }
+
+    /**
+     * Хранилище, выдающее ИД {@code firstId, firstId + idStep, ...}: раздел в {@link UserPartitionedRepository}.
+     */
+    public UserMemoryRepository(Journal journal, long firstId, long idStep) {
+        this.journal = journal;
+        this.userId = new AtomicLong(firstId);
+        this.idStep = idStep;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
 
     @Override
     public User addUser(User user) {
-        user.setId(userId);
-        userMap.put(userId, user);
-        userId++;
-        usersEmailMap.put(user.getEmail(), user);
+        if (usersEmailMap.putIfAbsent(user.getEmail(), user) != null) {
+            return null;
+        }
+        user.setId(userId.getAndAdd(idStep));
+        try {
+            journal.append(JournalEntry.UserSaved.of(user), () -> userMap.put(user.getId(), user));
+        } catch (RuntimeException e) {
+            usersEmailMap.remove(user.getEmail(), user);
+            throw e;
+        }
         return user;
     }
 
@@ -30,28 +83,129 @@ public class UserMemoryRepository implements UserRepository {
 
     @Override
     public User getUserById(Long id) {
-        if (!userMap.containsKey(id)) {
-            return null;
-        }
         return userMap.get(id);
     }
 
     @Override
-    public void changeEmailInMap(String newEmail, String oldEmail) {
-        User user = usersEmailMap.get(oldEmail);
-        usersEmailMap.remove(oldEmail);
-        usersEmailMap.put(newEmail, user);
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = userMap.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public UpdateResult updateUser(User user, Set<UserField> changed) {
+        Lock lock = lockFor(user.getId());
+        lock.lock();
+        try {
+            // пользователь мог быть удалён или изменён после того, как его прочитал вызывающий:
+            // почта удалённого пользователя не должна остаться занятой
+            User stored = userMap.get(user.getId());
+            if (stored == null || stored.getVersion() != user.getVersion()) {
+                return UpdateResult.STALE;
+            }
+            String oldEmail = stored.getEmail();
+            boolean emailChanged = changed.contains(UserField.EMAIL);
+            if (emailChanged && usersEmailMap.putIfAbsent(user.getEmail(), stored) != null) {
+                return UpdateResult.EMAIL_TAKEN;
+            }
+            user.setVersion(user.getVersion() + 1);
+            try {
+                journal.append(JournalEntry.UserSaved.of(user), () -> {
+                    // пользователь читается без блокировки, поэтому версия записывается последней
+                    stored.setName(user.getName());
+                    stored.setEmail(user.getEmail());
+                    stored.setVersion(user.getVersion());
+                });
+            } catch (RuntimeException e) {
+                if (emailChanged) {
+                    usersEmailMap.remove(user.getEmail(), stored);
+                }
+                throw e;
+            }
+            if (emailChanged) {
+                usersEmailMap.remove(oldEmail, stored);
+            }
+            return UpdateResult.UPDATED;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public void deleteUser(long id) {
-        User user = userMap.get(id);
-        usersEmailMap.remove(user.getEmail());
-        userMap.remove(id);
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (userMap.containsKey(id)) {
+                journal.append(new JournalEntry.UserDeleted(id), () -> removeUser(id));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return new ArrayList<>(userMap.values());
+    public List<User> getAllUsers(PageParams page) {
+        return userMap.tailMap(page.getAfterId(), false).values().stream()
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        userMap.values().forEach(action);
+    }
+
+    /**
+     * Применяет запись журнала при восстановлении: создаёт пользователя с его ИД или обновляет
+     * существующий объект на месте, чтобы ссылки из вещей остались действительны.
+     */
+    public void replayUserSaved(User user) {
+        User existing = userMap.get(user.getId());
+        if (existing == null) {
+            userMap.put(user.getId(), user);
+            usersEmailMap.put(user.getEmail(), user);
+        } else {
+            usersEmailMap.remove(existing.getEmail(), existing);
+            existing.setName(user.getName());
+            existing.setEmail(user.getEmail());
+            existing.setVersion(user.getVersion());
+            usersEmailMap.put(existing.getEmail(), existing);
+        }
+        userId.accumulateAndGet(user.getId() + idStep, Math::max);
+    }
+
+    int count() {
+        return usersEmailMap.size();
+    }
+
+    public void replayUserDeleted(long id) {
+        removeUser(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // size() у ConcurrentSkipListMap линеен, поэтому считаем по индексу почты
+        Gauge.builder("shareit.users.count", usersEmailMap, Map::size).register(registry);
+    }
+
+    private boolean removeUser(long id) {
+        User user = userMap.remove(id);
+        if (user == null) {
+            return false;
+        }
+        usersEmailMap.remove(user.getEmail(), user);
+        return true;
+    }
+
+    private Lock lockFor(long id) {
+        return locks[Long.hashCode(id) & (LOCK_STRIPES - 1)];
     }
 }
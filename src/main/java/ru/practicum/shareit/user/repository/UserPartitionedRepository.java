@@ -0,0 +1,134 @@
+package ru.practicum.shareit.user.repository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.journal.Journal;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.partition.Partitions;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Пользователи, разбитые по разделам (см. {@link Partitions}): новый пользователь попадает в раздел
+ * по хешу почты и получает ИД из диапазона раздела, туда же потом попадают его вещи. Уникальность
+ * почты общая для всех разделов, поэтому индекс почты один; его трогают только создание пользователя
+ * и смена почты. Изменение пользователя, как и у вещей, выполняет поток-писатель раздела
+ * над копией, подготовленной сервисом; здесь заранее только резервируется новая почта.
+ */
+@Repository
+@Profile("partitioned & !jdbc & !compact")
+@Timed("shareit.repository")
+public class UserPartitionedRepository implements UserRepository, MeterBinder {
+    private final Partitions partitions;
+    private final UserMemoryRepository[] shards;
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+    public UserPartitionedRepository(Partitions partitions) {
+        this.partitions = partitions;
+        this.shards = new UserMemoryRepository[partitions.count()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new UserMemoryRepository(Journal.NOOP, partitions.firstId(i), partitions.count());
+        }
+    }
+
+    @Override
+    public User addUser(User user) {
+        if (!emails.add(user.getEmail())) {
+            return null;
+        }
+        int partition = Math.floorMod(user.getEmail().hashCode(), shards.length);
+        return partitions.write(partition, () -> shards[partition].addUser(user));
+    }
+
+    @Override
+    public boolean isEmailPresent(String userEmail) {
+        return emails.contains(userEmail);
+    }
+
+    @Override
+    public User getUserById(Long id) {
+        return shards[partitions.of(id)].getUserById(id);
+    }
+
+    @Override
+    public List<User> getUsersByIds(Collection<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User user = getUserById(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public UpdateResult updateUser(User user, Set<UserField> changed) {
+        boolean emailChanged = changed.contains(UserField.EMAIL);
+        if (emailChanged && !emails.add(user.getEmail())) {
+            return UpdateResult.EMAIL_TAKEN;
+        }
+        int partition = partitions.of(user.getId());
+        // прежняя почта читается в потоке-писателе, чтобы параллельная смена почты не оставила её занятой
+        String[] oldEmail = new String[1];
+        UpdateResult result = partitions.write(partition, () -> {
+            User stored = shards[partition].getUserById(user.getId());
+            oldEmail[0] = stored == null ? null : stored.getEmail();
+            return shards[partition].updateUser(user, changed);
+        });
+        if (emailChanged) {
+            emails.remove(result == UpdateResult.UPDATED ? oldEmail[0] : user.getEmail());
+        }
+        return result;
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        int partition = partitions.of(id);
+        User deleted = partitions.write(partition, () -> {
+            User user = shards[partition].getUserById(id);
+            shards[partition].deleteUser(id);
+            return user;
+        });
+        if (deleted != null) {
+            emails.remove(deleted.getEmail());
+        }
+    }
+
+    @Override
+    public List<User> getAllUsers(PageParams page) {
+        PageParams window = new PageParams(page.getAfterId(), 0,
+                (int) Math.min((long) page.getFrom() + page.getSize(), Integer.MAX_VALUE));
+        return partitions.fanOut(partition -> shards[partition].getAllUsers(window)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(User::getId))
+                .skip(page.getFrom())
+                .limit(page.getSize())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        for (UserMemoryRepository shard : shards) {
+            shard.forEachUser(action);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.users.count", emails, Set::size).register(registry);
+    }
+}
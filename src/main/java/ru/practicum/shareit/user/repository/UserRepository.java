@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserRepository {
 
@@ -12,9 +17,29 @@ public interface UserRepository {
 
     User getUserById(Long id);
 
-    void changeEmailInMap(String newEmail, String oldEmail);
+    /**
+     * Найденные пользователи из переданных ИД одной выборкой, порядок не гарантируется.
+     */
+    List<User> getUsersByIds(Collection<Long> ids);
+
+    /**
+     * Переносит изменённые поля копии {@code user} в хранимого пользователя и увеличивает его версию
+     * на единицу, если версия хранимого всё ещё равна версии копии. Почта, имя и версия меняются
+     * вместе под одной блокировкой; при успехе копия получает новую версию.
+     */
+    UpdateResult updateUser(User user, Set<UserField> changed);
 
     void deleteUser(long id);
 
-    List<User> getAllUsers();
+    List<User> getAllUsers(PageParams page);
+
+    void forEachUser(Consumer<User> action);
+
+    enum UpdateResult {
+        UPDATED,
+        // новая почта занята другим пользователем
+        EMAIL_TAKEN,
+        // пользователь параллельно изменён или удалён
+        STALE
+    }
 }
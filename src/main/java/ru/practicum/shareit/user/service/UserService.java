@@ -1,19 +1,28 @@
 package ru.practicum.shareit.user.service;
 
 
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserDto addUser(UserDto userDto);
 
-    UserDto updateUser(UserDto userDto);
+    /**
+     * Применяет JSON Merge Patch к пользователю. Возвращает обновлённого пользователя или null,
+     * если он не нужен вызывающему.
+     */
+    UserDto updateUser(long id, UserPatchDto patch, boolean returnUser);
 
     UserDto getUserById(long id);
 
     void deleteUser(long id);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(PageParams page);
+
+    void exportAllUsers(Consumer<UserDto> consumer);
 }
@@ -2,53 +2,99 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.event.DomainEventType;
+import ru.practicum.shareit.event.EventRing;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final ValidationException INVALID_EMAIL =
+            new ValidationException("Email пользователя не прошёл валидацию.");
+    // столько раз изменение повторяется поверх параллельных, прежде чем клиент получит 409
+    private static final int UPDATE_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final EventRing events;
 
     @Override
     public UserDto addUser(UserDto userDto) {
         isEmailValid(userDto);
         User user = UserMapper.toUser(userDto);
         user = userRepository.addUser(user);
+        if (user == null) {
+            throw INVALID_EMAIL;
+        }
         userDto.setId(user.getId());
         log.info("Добавлен новый пользователь с ID = {}", user.getId());
         return userDto;
     }
 
+    /**
+     * Как и у вещей, запись кэша удаляется до и после изменения.
+     */
     @Override
-    public UserDto updateUser(UserDto userDto) {
-        User user = userRepository.getUserById(userDto.getId());
-        isUserPresent(user, userDto.getId());
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = "users", key = "#id")
+    })
+    public UserDto updateUser(long id, UserPatchDto patch, boolean returnUser) {
+        User user = userRepository.getUserById(id);
+        isUserPresent(user, id);
 
-        String oldEmail = user.getEmail();
-        String newEmail = userDto.getEmail();
-        if (newEmail != null) {
-            isEmailPresent(newEmail, oldEmail);
-            userRepository.changeEmailInMap(newEmail, oldEmail);
-            user.setEmail(newEmail);
-        }
-        if (userDto.getName() != null) {
-            user.setName(userDto.getName());
+        // новое состояние готовится на копии, а хранилище переносит его в пользователя вместе с новой
+        // версией; индекс почты и запись имени затрагиваются, только если значение действительно изменилось
+        User updated;
+        Set<UserField> changed;
+        for (int attempt = 1; ; attempt++) {
+            updated = new User(user);
+            changed = UserMapper.applyPatch(updated, patch);
+            if (changed.isEmpty()) {
+                break;
+            }
+            UserRepository.UpdateResult result = userRepository.updateUser(updated, changed);
+            if (result == UserRepository.UpdateResult.UPDATED) {
+                events.publish(DomainEventType.USER_UPDATED, id, updated.getVersion(), UserMapper.toUserDto(updated));
+                break;
+            }
+            if (result == UserRepository.UpdateResult.EMAIL_TAKEN) {
+                throw new ValidationException("Пользователь с Email " + updated.getEmail() + " уже существует.");
+            }
+            if (attempt == UPDATE_ATTEMPTS) {
+                throw new ValidationException("Пользователь с ИД " + id + " изменён параллельно, повторите запрос.");
+            }
+            user = userRepository.getUserById(id);
+            isUserPresent(user, id);
         }
-        log.info("Пользователь с ID {} обновлён.", user.getId());
-        return UserMapper.toUserDto(user);
+        log.info("Пользователь с ID {} обновлён, изменённые поля: {}.", id, changed);
+        return returnUser ? UserMapper.toUserDto(updated) : null;
     }
 
     @Override
+    @Cacheable(cacheNames = "users", key = "#id")
     public UserDto getUserById(long id) {
         User user = userRepository.getUserById(id);
         isUserPresent(user, id);
@@ -58,28 +104,42 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = "items", allEntries = true, beforeInvocation = true),
+            @CacheEvict(cacheNames = "users", key = "#id"),
+            @CacheEvict(cacheNames = "items", allEntries = true)
+    })
     public void deleteUser(long id) {
-        isUserPresent(userRepository.getUserById(id), id);
+        User user = userRepository.getUserById(id);
+        isUserPresent(user, id);
+        bookingRepository.deleteBookingsByUserId(id);
+        itemRepository.deleteAllItemsByUserId(id);
         userRepository.deleteUser(id);
+        events.publish(DomainEventType.USER_DELETED, id, user.getVersion(), null);
         log.info("Пользователь с ID {} удалён.", id);
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        List<User> users = userRepository.getAllUsers();
-        log.info("Текущее количество пользователей: {}. Список возвращён.", users.size());
+    public List<UserDto> getAllUsers(PageParams page) {
+        List<User> users = userRepository.getAllUsers(page);
+        log.info("Количество пользователей на странице: {}. Список возвращён.", users.size());
         return users.stream().map(UserMapper::toUserDto).collect(Collectors.toList());
     }
 
-    private void isUserPresent(User user, Long id) {
-        if (user == null) {
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", id));
-        }
+    @Override
+    public void exportAllUsers(Consumer<UserDto> consumer) {
+        AtomicLong count = new AtomicLong();
+        userRepository.forEachUser(user -> {
+            consumer.accept(UserMapper.toUserDto(user));
+            count.incrementAndGet();
+        });
+        log.info("Выгружено пользователей: {}.", count.get());
     }
 
-    private void isEmailPresent(String newEmail, String oldEmail) {
-        if (userRepository.isEmailPresent(newEmail) && !oldEmail.equals(newEmail)) {
-            throw new ValidationException(String.format("Пользователь с Email %s уже существует.", newEmail));
+    private void isUserPresent(User user, Long id) {
+        if (user == null) {
+            throw new NotFoundException("Пользователь с ИД " + id + " отсутствует в БД.");
         }
     }
 
@@ -88,7 +148,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("Email пользователя не должен быть null.");
         }
         if (userDto.getEmail().isBlank() || userRepository.isEmailPresent(userDto.getEmail())) {
-            throw new ValidationException("Email пользователя не прошёл валидацию.");
+            throw INVALID_EMAIL;
         }
     }
 }
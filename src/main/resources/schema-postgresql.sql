@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (LOWER(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (LOWER(description) gin_trgm_ops) WHERE available;
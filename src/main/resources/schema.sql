@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS users (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(255) NOT NULL,
+    email   VARCHAR(512) NOT NULL,
+    version BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON users (email);
+
+CREATE TABLE IF NOT EXISTS items (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000) NOT NULL,
+    available   BOOLEAN       NOT NULL,
+    owner_id    BIGINT        NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    request_id  BIGINT,
+    version     BIGINT        NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.item.repository.ItemCompactRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserCompactRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "compact"})
+class ShareItCompactTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Test
+	void contextLoadsCompactRepositories() {
+		assertThat(userRepository).isInstanceOf(UserCompactRepository.class);
+		assertThat(itemRepository).isInstanceOf(ItemCompactRepository.class);
+	}
+
+	@Test
+	void compactRepositoriesKeepItemsOfOwnerAndSearchIndex() {
+		User owner = userRepository.addUser(new User("Owner", "compact-owner@mail.ru"));
+		assertThat(userRepository.isEmailPresent("compact-owner@mail.ru")).isTrue();
+
+		Item drill = new Item("Дрель", "Ударная дрель", true);
+		drill.setOwner(owner);
+		Item saw = new Item("Пила", "Дисковая пила", false);
+		saw.setOwner(owner);
+		itemRepository.addItems(List.of(drill, saw));
+
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), PageParams.ALL))
+				.extracting(Item::getName).containsExactly("Дрель", "Пила");
+		assertThat(itemRepository.getItemsBySearch("ударная", PageParams.ALL))
+				.extracting(Item::getId).containsExactly(drill.getId());
+		assertThat(itemRepository.getItemsBySearch("пил", PageParams.ALL)).isEmpty();
+
+		Item stored = itemRepository.getItemById(saw.getId());
+		stored.setAvailable(true);
+		itemRepository.updateItem(stored, EnumSet.of(ItemField.AVAILABLE));
+		assertThat(itemRepository.getItemsBySearch("пил", PageParams.ALL))
+				.extracting(Item::getId).containsExactly(saw.getId());
+		assertThat(stored.getOwner().getEmail()).isEqualTo("compact-owner@mail.ru");
+
+		itemRepository.deleteAllItemsByUserId(owner.getId());
+		userRepository.deleteUser(owner.getId());
+		assertThat(itemRepository.getItemById(drill.getId())).isNull();
+		assertThat(itemRepository.getItemsBySearch("дрел", PageParams.ALL)).isEmpty();
+		assertThat(userRepository.isEmailPresent("compact-owner@mail.ru")).isFalse();
+	}
+
+}
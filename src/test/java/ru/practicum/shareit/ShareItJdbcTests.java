@@ -0,0 +1,135 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.item.repository.ItemJdbcRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+import ru.practicum.shareit.user.repository.UserJdbcRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"test", "jdbc"})
+class ShareItJdbcTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Test
+	void contextLoadsJdbcRepositories() {
+		assertThat(userRepository).isInstanceOf(UserJdbcRepository.class);
+		assertThat(itemRepository).isInstanceOf(ItemJdbcRepository.class);
+	}
+
+	@Test
+	void usersAndItemsSurviveRoundTripThroughDatabase() {
+		User owner = userRepository.addUser(new User("Owner", "jdbc-owner@mail.ru"));
+		assertThat(owner.getId()).isNotNull();
+		assertThat(userRepository.addUser(new User("Copy", "jdbc-owner@mail.ru"))).isNull();
+		assertThat(userRepository.isEmailPresent("jdbc-owner@mail.ru")).isTrue();
+		User other = userRepository.addUser(new User("Other", "jdbc-other@mail.ru"));
+
+		List<Item> added = itemRepository.addItems(List.of(
+				owned(new Item("Дрель", "Ударная дрель 100%", true), owner),
+				owned(new Item("Пила", "Дисковая пила", true), owner),
+				owned(new Item("Дрель_мини", "Маленькая дрель", false), owner)));
+		assertThat(added).extracting(Item::getId).doesNotContainNull().isSorted();
+		Item single = itemRepository.addItem(owned(new Item("Стремянка", "Складная", true), other));
+		long before = itemRepository.getItemsVersionByUserId(owner.getId());
+
+		Item drill = itemRepository.getItemById(added.get(0).getId());
+		assertThat(drill.getName()).isEqualTo("Дрель");
+		assertThat(drill.getOwner().getEmail()).isEqualTo("jdbc-owner@mail.ru");
+		assertThat(itemRepository.getItemsByIds(List.of(single.getId(), drill.getId())))
+				.extracting(Item::getName).containsExactlyInAnyOrder("Стремянка", "Дрель");
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), new PageParams(0, 1, 5)))
+				.extracting(Item::getName).containsExactly("Пила", "Дрель_мини");
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), new PageParams(drill.getId(), 0, 5)))
+				.hasSize(2);
+
+		// недоступные вещи не ищутся, а % и _ в запросе — обычные символы
+		assertThat(itemRepository.getItemsBySearch("дрел", PageParams.ALL))
+				.extracting(Item::getId).containsExactly(drill.getId());
+		assertThat(itemRepository.getItemsBySearch("100%", PageParams.ALL)).hasSize(1);
+		assertThat(itemRepository.getItemsBySearch("ь_", PageParams.ALL)).isEmpty();
+		List<Item> exported = new ArrayList<>();
+		itemRepository.forEachItemBySearch("пила", exported::add);
+		assertThat(exported).extracting(Item::getName).containsExactly("Пила");
+		assertThat(itemRepository.getTopItemsBySearch("дисковая пила", 5)).extracting(Item::getName)
+				.containsExactly("Пила");
+		assertThat(itemRepository.getTopItemsBySearch("дрель ударная", 5)).extracting(Item::getId)
+				.containsExactly(drill.getId());
+		assertThat(itemRepository.getTopItemsBySearch("дрель пила", 5)).isEmpty();
+		assertThat(itemRepository.getTopItemsBySearch("экскаватор", 5)).isEmpty();
+
+		drill.setAvailable(false);
+		assertThat(itemRepository.updateItem(drill, EnumSet.of(ItemField.AVAILABLE))).isTrue();
+		assertThat(itemRepository.getItemsBySearch("дрел", PageParams.ALL)).isEmpty();
+		assertThat(itemRepository.getItemsVersionByUserId(owner.getId())).isGreaterThan(before);
+
+		User renamed = userRepository.getUserById(owner.getId());
+		renamed.setEmail("jdbc-other@mail.ru");
+		assertThat(userRepository.updateUser(renamed, EnumSet.of(UserField.EMAIL)))
+				.isEqualTo(UserRepository.UpdateResult.EMAIL_TAKEN);
+		renamed.setEmail("jdbc-renamed@mail.ru");
+		assertThat(userRepository.updateUser(renamed, EnumSet.of(UserField.EMAIL)))
+				.isEqualTo(UserRepository.UpdateResult.UPDATED);
+		assertThat(userRepository.getUserById(owner.getId()).getVersion()).isEqualTo(1);
+		assertThat(itemRepository.getItemById(drill.getId()).getOwner().getEmail())
+				.isEqualTo("jdbc-renamed@mail.ru");
+
+		itemRepository.deleteAllItemsByUserId(owner.getId());
+		userRepository.deleteUser(owner.getId());
+		assertThat(userRepository.getUserById(owner.getId())).isNull();
+		assertThat(userRepository.isEmailPresent("jdbc-renamed@mail.ru")).isFalse();
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), PageParams.ALL)).isEmpty();
+		assertThat(itemRepository.getItemById(single.getId())).isNotNull();
+	}
+
+	@Test
+	void updateOverStaleVersionIsRefused() {
+		User owner = userRepository.addUser(new User("Owner", "jdbc-stale@mail.ru"));
+		Item drill = new Item("Дрель", "Простая дрель", true);
+		drill.setOwner(owner);
+		long id = itemRepository.addItem(drill).getId();
+
+		Item first = itemRepository.getItemById(id);
+		Item second = itemRepository.getItemById(id);
+		first.setDescription("Ударная дрель");
+		second.setDescription("Дрель с набором бит");
+		assertThat(itemRepository.updateItem(first, EnumSet.of(ItemField.DESCRIPTION))).isTrue();
+		assertThat(itemRepository.updateItem(second, EnumSet.of(ItemField.DESCRIPTION))).isFalse();
+		assertThat(first.getVersion()).isEqualTo(1);
+		assertThat(itemRepository.getItemById(id).getDescription()).isEqualTo("Ударная дрель");
+
+		User renamed = userRepository.getUserById(owner.getId());
+		User moved = userRepository.getUserById(owner.getId());
+		renamed.setName("Renamed");
+		moved.setEmail("jdbc-moved@mail.ru");
+		assertThat(userRepository.updateUser(renamed, EnumSet.of(UserField.NAME)))
+				.isEqualTo(UserRepository.UpdateResult.UPDATED);
+		assertThat(userRepository.updateUser(moved, EnumSet.of(UserField.EMAIL)))
+				.isEqualTo(UserRepository.UpdateResult.STALE);
+		assertThat(userRepository.getUserById(owner.getId()).getEmail()).isEqualTo("jdbc-stale@mail.ru");
+	}
+
+	private static Item owned(Item item, User owner) {
+		item.setOwner(owner);
+		return item;
+	}
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.repository.ItemPartitionedRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.partition.Partitions;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+import ru.practicum.shareit.user.repository.UserPartitionedRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "shareit.partitions=4")
+@ActiveProfiles({"test", "partitioned"})
+class ShareItPartitionedTests {
+	private static final String[] NAMES = {"Дрель", "Пила", "Лобзик", "Стремянка"};
+	private static final String[] ADJECTIVES = {"ударная", "дисковая", "лёгкая", "складная", "мощная"};
+	private static final Set<UserField> EMAIL = EnumSet.of(UserField.EMAIL);
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ItemRepository itemRepository;
+
+	@Autowired
+	private Partitions partitions;
+
+	@Test
+	void contextLoadsPartitionedRepositories() {
+		assertThat(userRepository).isInstanceOf(UserPartitionedRepository.class);
+		assertThat(itemRepository).isInstanceOf(ItemPartitionedRepository.class);
+		assertThat(partitions.count()).isEqualTo(4);
+	}
+
+	@Test
+	void ownersItemsStayInOwnersPartitionAndSearchMatchesSingleStore() {
+		ItemMemoryRepository single = new ItemMemoryRepository();
+		List<User> owners = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			owners.add(userRepository.addUser(new User("owner" + i, "partitioned-owner" + i + "@mail.ru")));
+		}
+		assertThat(userRepository.addUser(new User("copy", "partitioned-owner3@mail.ru"))).isNull();
+		for (int i = 0; i < 120; i++) {
+			User owner = owners.get(i % owners.size());
+			String name = NAMES[i % NAMES.length];
+			String description = ADJECTIVES[i % ADJECTIVES.length] + " " + name.toLowerCase() + " №" + i;
+			Item item = itemRepository.addItem(owned(new Item(name, description, i % 7 != 0), owner));
+			assertThat(partitions.of(item.getId())).isEqualTo(partitions.of(owner.getId()));
+			single.addItem(owned(new Item(name, description, i % 7 != 0), owner));
+		}
+
+		User owner = owners.get(5);
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), PageParams.ALL)).hasSize(10)
+				.allMatch(item -> item.getOwner() == owner);
+		assertThat(userRepository.getAllUsers(new PageParams(owners.get(0).getId() - 1, 2, 5)))
+				.extracting(User::getId).isSorted().hasSize(5);
+
+		List<Item> found = itemRepository.getItemsBySearch("дрел", PageParams.ALL);
+		assertThat(found).extracting(Item::getId).isSorted();
+		assertThat(found).extracting(Item::getDescription).containsExactlyInAnyOrderElementsOf(
+				single.getItemsBySearch("дрел", PageParams.ALL).stream().map(Item::getDescription).toList());
+		assertThat(itemRepository.getItemsBySearch("дрел", new PageParams(found.get(1).getId(), 2, 4)))
+				.containsExactlyElementsOf(found.subList(4, 8));
+		// при равной оценке порядок зависит от ИД, которые в разделах другие, поэтому сравниваются лучший и состав
+		List<Item> top = itemRepository.getTopItemsBySearch("мощная пила", 5);
+		List<Item> singleTop = single.getTopItemsBySearch("мощная пила", 5);
+		assertThat(top.get(0).getDescription()).isEqualTo(singleTop.get(0).getDescription());
+		assertThat(top).extracting(Item::getDescription)
+				.containsExactlyInAnyOrderElementsOf(singleTop.stream().map(Item::getDescription).toList());
+
+		assertThat(userRepository.updateUser(withEmail(owner, "partitioned-owner3@mail.ru"), EMAIL))
+				.isEqualTo(UserRepository.UpdateResult.EMAIL_TAKEN);
+		assertThat(userRepository.updateUser(withEmail(owner, "partitioned-moved@mail.ru"), EMAIL))
+				.isEqualTo(UserRepository.UpdateResult.UPDATED);
+		assertThat(owner.getEmail()).isEqualTo("partitioned-moved@mail.ru");
+		assertThat(owner.getVersion()).isEqualTo(1);
+		assertThat(userRepository.isEmailPresent("partitioned-owner5@mail.ru")).isFalse();
+		itemRepository.deleteAllItemsByUserId(owner.getId());
+		userRepository.deleteUser(owner.getId());
+		assertThat(itemRepository.getAllItemsByUserId(owner.getId(), PageParams.ALL)).isEmpty();
+		assertThat(userRepository.isEmailPresent("partitioned-moved@mail.ru")).isFalse();
+		assertThat(userRepository.updateUser(withEmail(owner, "partitioned-deleted@mail.ru"), EMAIL))
+				.isEqualTo(UserRepository.UpdateResult.STALE);
+		assertThat(userRepository.isEmailPresent("partitioned-deleted@mail.ru")).isFalse();
+	}
+
+	@Test
+	void concurrentItemUpdatesGetDistinctVersions() throws Exception {
+		User owner = userRepository.addUser(new User("owner", "partitioned-writer@mail.ru"));
+		long id = itemRepository.addItem(owned(new Item("Дрель", "Простая дрель", true), owner)).getId();
+		Map<Long, String> bodies = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int thread = 0; thread < 8; thread++) {
+			int number = thread;
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 100; i++) {
+					Item updated = new Item(itemRepository.getItemById(id));
+					updated.setDescription("Дрель " + number + "-" + i);
+					if (itemRepository.updateItem(updated, EnumSet.of(ItemField.DESCRIPTION))) {
+						assertThat(bodies.putIfAbsent(updated.getVersion(), updated.getDescription())).isNull();
+					}
+				}
+			}));
+		}
+		executor.shutdown();
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.MINUTES);
+		}
+
+		Item stored = itemRepository.getItemById(id);
+		assertThat(stored.getVersion()).isEqualTo(bodies.size());
+		assertThat(stored.getDescription()).isEqualTo(bodies.get(stored.getVersion()));
+	}
+
+	private static User withEmail(User user, String email) {
+		User updated = new User(user);
+		updated.setEmail(email);
+		return updated;
+	}
+
+	private static Item owned(Item item, User owner) {
+		item.setOwner(owner);
+		return item;
+	}
+}
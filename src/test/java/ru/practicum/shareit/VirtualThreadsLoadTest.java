@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест: тысячи одновременных соединений к обработчику с блокирующей задержкой,
+ * пул потоков Tomcat против виртуальных потоков. Запускается явно:
+ * {@code mvn test -Dtest=VirtualThreadsLoadTest -Dshareit.loadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "shareit.loadtest", matches = "true")
+class VirtualThreadsLoadTest {
+	private static final int CONNECTIONS = Integer.getInteger("shareit.loadtest.connections", 2000);
+	private static final int REQUESTS_PER_CONNECTION = Integer.getInteger("shareit.loadtest.requests", 10);
+	private static final long BLOCKING_MILLIS = Long.getLong("shareit.loadtest.blockingMillis", 100);
+
+	@Test
+	void virtualThreadsServeMoreBlockingRequestsThanPlatformPool() throws Exception {
+		double platform = measureThroughput(false);
+		double virtual = measureThroughput(true);
+		System.out.printf("Соединений: %d, блокировка %d мс. Пул Tomcat: %.0f запр/с, виртуальные потоки: %.0f запр/с%n",
+				CONNECTIONS, BLOCKING_MILLIS, platform, virtual);
+		assertThat(virtual).isGreaterThan(platform);
+	}
+
+	private double measureThroughput(boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class, BlockingCall.class)
+				.properties("server.port=0",
+						"spring.threads.virtual.enabled=" + virtualThreads,
+						"logging.level.ru.practicum.shareit=WARN")
+				.run();
+			 HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+			 ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+			String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"load\",\"email\":\"load@shareit.ru\"}"))
+					.build(), HttpResponse.BodyHandlers.discarding());
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/1")).GET().build();
+
+			AtomicInteger failed = new AtomicInteger();
+			List<Future<?>> futures = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int c = 0; c < CONNECTIONS; c++) {
+				futures.add(connections.submit(() -> {
+					for (int i = 0; i < REQUESTS_PER_CONNECTION; i++) {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() != 200) {
+							failed.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			assertThat(failed.get()).isZero();
+			return CONNECTIONS * REQUESTS_PER_CONNECTION / seconds;
+		}
+	}
+
+	/**
+	 * Имитирует блокирующий вызов (JDBC, внешний сервис) в каждом запросе.
+	 */
+	static class BlockingCall implements WebMvcConfigurer {
+		@Override
+		public void addInterceptors(InterceptorRegistry registry) {
+			registry.addInterceptor(new HandlerInterceptor() {
+				@Override
+				public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+						throws InterruptedException {
+					Thread.sleep(BLOCKING_MILLIS);
+					return true;
+				}
+			});
+		}
+	}
+}
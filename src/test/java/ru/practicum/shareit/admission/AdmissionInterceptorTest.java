@@ -0,0 +1,35 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"shareit.admission.user-rate=0.1", "shareit.admission.user-burst=2"})
+@AutoConfigureMockMvc
+class AdmissionInterceptorTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void userOverRateGets429WithRetryAfterWhileOthersPass() throws Exception {
+        mvc.perform(get("/items").header(USER_HEADER, 9001)).andExpect(status().isNotFound());
+        mvc.perform(get("/items").header(USER_HEADER, 9001)).andExpect(status().isNotFound());
+
+        mvc.perform(get("/items").header(USER_HEADER, 9001))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.errorMessage").exists());
+        mvc.perform(get("/items").header(USER_HEADER, 9002)).andExpect(status().isNotFound());
+        mvc.perform(get("/users")).andExpect(status().isOk());
+    }
+}
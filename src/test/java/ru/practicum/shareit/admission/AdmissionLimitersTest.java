@@ -0,0 +1,61 @@
+package ru.practicum.shareit.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionLimitersTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void userBucketAllowsBurstThenRefillsAtRateAndExpires() {
+        long now = 1_000 * SECOND;
+        UserRateLimiter limiter = new UserRateLimiter(10, 3, 60 * SECOND, now);
+
+        assertThat(limiter.tryAcquire(1, now)).isZero();
+        assertThat(limiter.tryAcquire(1, now)).isZero();
+        assertThat(limiter.tryAcquire(1, now)).isZero();
+        assertThat(limiter.tryAcquire(1, now)).isEqualTo(100 * MILLI);
+        assertThat(limiter.tryAcquire(2, now)).isZero();
+        assertThat(limiter.tryAcquire(1, now + 100 * MILLI)).isZero();
+        assertThat(limiter.tryAcquire(1, now + 100 * MILLI)).isPositive();
+
+        limiter.tryAcquire(3, now + 30 * SECOND);
+        assertThat(limiter.size()).isEqualTo(3);
+        limiter.tryAcquire(3, now + 61 * SECOND);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrencyLimitShrinksOnSlowResponsesAndGrowsBackWhenBusy() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 2, 20, 50 * MILLI, 0.5);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        // медленные ответы одного поколения уменьшают предел один раз
+        limiter.release(0, 200 * MILLI);
+        limiter.release(0, 210 * MILLI);
+        assertThat(limiter.limit()).isEqualTo(5);
+        assertThat(limiter.inFlight()).isEqualTo(8);
+        limiter.release(300 * MILLI, 400 * MILLI);
+        assertThat(limiter.limit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        for (int i = 0; i < 7; i++) {
+            limiter.release();
+        }
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(SECOND, SECOND + MILLI);
+            limiter.release(SECOND, SECOND + MILLI);
+        }
+        assertThat(limiter.limit()).isGreaterThan(2);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
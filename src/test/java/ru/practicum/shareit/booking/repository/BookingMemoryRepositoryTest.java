@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository.ReviewResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingMemoryRepositoryTest {
+    private static final int THREADS = 16;
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    private final BookingMemoryRepository repository = new BookingMemoryRepository();
+    private final User owner = user(1);
+    private final User booker = user(2);
+    private final Item item = item(owner);
+
+    @Test
+    void bookingIsReviewedOnlyOnceUnderConcurrentDecisions() throws Exception {
+        Booking booking = repository.addBooking(waiting(0, 2));
+
+        List<ReviewResult> results = concurrently(thread -> repository.reviewBooking(booking, thread % 2 == 0));
+
+        assertThat(results).filteredOn(result -> result == ReviewResult.REVIEWED).hasSize(1);
+        assertThat(results).filteredOn(result -> result == ReviewResult.ALREADY_REVIEWED).hasSize(THREADS - 1);
+        BookingState state = booking.getStatus() == BookingStatus.APPROVED ? BookingState.FUTURE
+                : BookingState.REJECTED;
+        assertThat(repository.getBookingsByBookerId(booker.getId(), state, LocalDateTime.now(), PageParams.ALL))
+                .containsExactly(booking);
+        assertThat(repository.getBookingsByOwnerId(owner.getId(), BookingState.WAITING, LocalDateTime.now(),
+                PageParams.ALL)).isEmpty();
+        assertThat(repository.isItemAvailable(item.getId(), booking.getStart(), booking.getEnd()))
+                .isEqualTo(booking.getStatus() == BookingStatus.REJECTED);
+    }
+
+    @Test
+    void onlyOneOfOverlappingBookingsIsApproved() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookings.add(repository.addBooking(waiting(i, i + THREADS)));
+        }
+
+        List<ReviewResult> results = concurrently(thread -> repository.reviewBooking(bookings.get(thread), true));
+
+        assertThat(results).filteredOn(result -> result == ReviewResult.REVIEWED).hasSize(1);
+        assertThat(results).filteredOn(result -> result == ReviewResult.ITEM_BOOKED).hasSize(THREADS - 1);
+        assertThat(bookings).filteredOn(booking -> booking.getStatus() == BookingStatus.APPROVED).hasSize(1);
+        assertThat(repository.getBookingsByOwnerId(owner.getId(), BookingState.WAITING, LocalDateTime.now(),
+                PageParams.ALL)).hasSize(THREADS - 1);
+    }
+
+    @Test
+    void deletingUserRemovesTheirBookingsAndBookingsOfTheirItems() {
+        User other = user(3);
+        Item otherItem = item(other);
+        otherItem.setId(2L);
+        Booking ofItem = repository.addBooking(waiting(0, 1));
+        Booking byOwner = new Booking(START, START.plusHours(1), otherItem, owner);
+        byOwner.setStatus(BookingStatus.WAITING);
+        repository.addBooking(byOwner);
+        assertThat(repository.reviewBooking(byOwner, true)).isEqualTo(ReviewResult.REVIEWED);
+        Booking kept = new Booking(START.plusHours(2), START.plusHours(3), otherItem, booker);
+        kept.setStatus(BookingStatus.WAITING);
+        repository.addBooking(kept);
+
+        repository.deleteBookingsByUserId(owner.getId());
+
+        assertThat(repository.getBookingById(ofItem.getId())).isNull();
+        assertThat(repository.getBookingById(byOwner.getId())).isNull();
+        assertThat(repository.reviewBooking(ofItem, true)).isEqualTo(ReviewResult.DELETED);
+        assertThat(repository.getBookingsByBookerId(booker.getId(), BookingState.ALL, LocalDateTime.now(),
+                PageParams.ALL)).containsExactly(kept);
+        assertThat(repository.getBookingsByOwnerId(other.getId(), BookingState.ALL, LocalDateTime.now(),
+                PageParams.ALL)).containsExactly(kept);
+        assertThat(repository.isItemAvailable(otherItem.getId(), byOwner.getStart(), byOwner.getEnd())).isTrue();
+    }
+
+    private List<ReviewResult> concurrently(Review review) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ReviewResult>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return review.run(thread);
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        List<ReviewResult> results = new ArrayList<>();
+        for (Future<ReviewResult> future : futures) {
+            results.add(future.get(1, TimeUnit.MINUTES));
+        }
+        return results;
+    }
+
+    private Booking waiting(int startHour, int endHour) {
+        Booking booking = new Booking(START.plusHours(startHour), START.plusHours(endHour), item, booker);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private static User user(long id) {
+        User user = new User("user" + id, "user" + id + "@mail.ru");
+        user.setId(id);
+        return user;
+    }
+
+    private static Item item(User owner) {
+        Item item = new Item("Дрель", "Простая дрель", true);
+        item.setId(1L);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private interface Review {
+        ReviewResult run(int thread);
+    }
+}
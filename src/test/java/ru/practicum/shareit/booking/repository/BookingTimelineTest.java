@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.PageParams;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingTimelineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    private final BookingTimeline timeline = new BookingTimeline();
+
+    @Test
+    void everyStateSelectsItsBookingsNewestFirst() {
+        Booking past = add(1, -10, -8);
+        Booking olderPast = add(2, -20, -15);
+        Booking current = add(3, -1, 1);
+        Booking endsNow = add(4, -2, 0);
+        Booking future = add(5, 2, 3);
+        Booking laterFuture = add(6, 5, 6);
+
+        assertThat(find(BookingState.ALL)).containsExactly(laterFuture, future, current, endsNow, past, olderPast);
+        assertThat(find(BookingState.FUTURE)).containsExactly(laterFuture, future);
+        assertThat(find(BookingState.PAST)).containsExactly(endsNow, past, olderPast);
+        assertThat(find(BookingState.CURRENT)).containsExactly(current);
+        assertThat(find(BookingState.WAITING)).hasSize(6);
+        assertThat(find(BookingState.REJECTED)).isEmpty();
+        assertThat(timeline.find(BookingState.ALL, NOW, new PageParams(0, 1, 2)))
+                .containsExactly(future, current);
+    }
+
+    @Test
+    void currentIncludesLongBookingsAndPagesApplyToEveryState() {
+        Booking longCurrent = add(1, -100, 100);
+        Booking past = add(2, -50, -40);
+        Booking shortCurrent = add(3, -1, 1);
+        Booking olderPast = add(4, -200, -150);
+        add(5, 10, 20);
+
+        assertThat(find(BookingState.CURRENT)).containsExactly(shortCurrent, longCurrent);
+        assertThat(timeline.find(BookingState.CURRENT, NOW, new PageParams(0, 1, 1)))
+                .containsExactly(longCurrent);
+        assertThat(timeline.find(BookingState.PAST, NOW, new PageParams(0, 1, 1))).containsExactly(olderPast);
+        assertThat(find(BookingState.PAST)).containsExactly(past, olderPast);
+
+        timeline.remove(longCurrent);
+        assertThat(find(BookingState.CURRENT)).containsExactly(shortCurrent);
+        assertThat(find(BookingState.WAITING)).doesNotContain(longCurrent);
+    }
+
+    @Test
+    void statusChangeMovesBookingBetweenStatusIndexes() {
+        Booking approved = add(1, 1, 2);
+        Booking rejected = add(2, 3, 4);
+        add(3, 5, 6);
+
+        approved.setStatus(BookingStatus.APPROVED);
+        timeline.changeStatus(approved, BookingStatus.WAITING);
+        rejected.setStatus(BookingStatus.REJECTED);
+        timeline.changeStatus(rejected, BookingStatus.WAITING);
+
+        assertThat(find(BookingState.WAITING)).extracting(Booking::getId).containsExactly(3L);
+        assertThat(find(BookingState.REJECTED)).containsExactly(rejected);
+        assertThat(find(BookingState.FUTURE)).hasSize(3);
+    }
+
+    private List<Booking> find(BookingState state) {
+        return timeline.find(state, NOW, PageParams.ALL);
+    }
+
+    private Booking add(long id, int startHours, int endHours) {
+        Booking booking = new Booking(NOW.plusHours(startHours), NOW.plusHours(endHours), null, null);
+        booking.setId(id);
+        booking.setStatus(BookingStatus.WAITING);
+        timeline.add(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemScheduleTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final ItemSchedule schedule = new ItemSchedule();
+
+    @Test
+    void overlappingIntervalsAreRefusedAndAdjacentOnesAccepted() {
+        assertThat(schedule.isFree(at(10), at(12))).isTrue();
+        assertThat(schedule.book(booking(10, 12))).isTrue();
+
+        assertThat(schedule.book(booking(11, 13))).isFalse();
+        assertThat(schedule.book(booking(9, 11))).isFalse();
+        assertThat(schedule.book(booking(9, 13))).isFalse();
+        assertThat(schedule.book(booking(10, 12))).isFalse();
+        assertThat(schedule.isFree(at(11), at(11).plusMinutes(30))).isFalse();
+
+        // интервалы полуоткрытые: конец одного бронирования может совпадать с началом другого
+        assertThat(schedule.book(booking(12, 14))).isTrue();
+        assertThat(schedule.book(booking(8, 10))).isTrue();
+        assertThat(schedule.isFree(at(14), at(15))).isTrue();
+        assertThat(schedule.isFree(at(7), at(9))).isFalse();
+    }
+
+    private static Booking booking(int startHour, int endHour) {
+        return new Booking(at(startHour), at(endHour), null, null);
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.repository.BookingMemoryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingServiceTest {
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1);
+
+    private final List<Collection<Long>> userLookups = new ArrayList<>();
+    private final List<Collection<Long>> itemLookups = new ArrayList<>();
+    private BookingService bookingService;
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        UserMemoryRepository userRepository = new UserMemoryRepository() {
+            @Override
+            public List<User> getUsersByIds(Collection<Long> ids) {
+                userLookups.add(List.copyOf(ids));
+                return super.getUsersByIds(ids);
+            }
+        };
+        ItemMemoryRepository itemRepository = new ItemMemoryRepository() {
+            @Override
+            public List<Item> getItemsByIds(Collection<Long> ids) {
+                itemLookups.add(List.copyOf(ids));
+                return super.getItemsByIds(ids);
+            }
+        };
+        bookingService = new BookingServiceImpl(new BookingMemoryRepository(),
+                new RequestLoaders(userRepository, itemRepository, new ItemRequestMemoryRepository()));
+        owner = userRepository.addUser(new User("owner", "booking-owner@mail.ru"));
+        booker = userRepository.addUser(new User("booker", "booking-booker@mail.ru"));
+        for (int i = 0; i < 3; i++) {
+            Item item = new Item("Дрель " + i, "Для бронирования", true);
+            item.setOwner(owner);
+            items.add(itemRepository.addItem(item));
+        }
+    }
+
+    @Test
+    void listingLoadsItemsAndBookersOfThePageInOneBatchEach() {
+        for (int i = 0; i < items.size(); i++) {
+            bookingService.addBooking(booker.getId(), new BookingRequestDto(items.get(i).getId(),
+                    START.plusHours(i), START.plusHours(i + 1)));
+        }
+        userLookups.clear();
+        itemLookups.clear();
+
+        List<BookingDto> bookings = bookingService.getBookingsByOwnerId(owner.getId(), "ALL", PageParams.ALL);
+
+        assertThat(bookings).extracting(booking -> booking.getItem().getName())
+                .containsExactly("Дрель 2", "Дрель 1", "Дрель 0");
+        assertThat(itemLookups).hasSize(1);
+        assertThat(itemLookups.get(0)).containsExactlyInAnyOrder(
+                items.get(0).getId(), items.get(1).getId(), items.get(2).getId());
+        // первая выборка пользователей проверяет владельца, вторая — арендаторы страницы
+        assertThat(userLookups).containsExactly(List.of(owner.getId()), List.of(booker.getId()));
+    }
+}
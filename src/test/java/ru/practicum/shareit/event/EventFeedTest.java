@@ -0,0 +1,134 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.event.controller.EventController;
+import ru.practicum.shareit.exeption.ErrorHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EventFeedTest {
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    private final EventRing ring = new EventRing(4);
+    private EventFeed feed;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        feed = new EventFeed(ring, Duration.ofMillis(100));
+        mvc = MockMvcBuilders.standaloneSetup(new EventController(feed))
+                .setControllerAdvice(new ErrorHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.close();
+    }
+
+    @Test
+    void subscriberReceivesPublishedEventsAndResumesAfterLastEventId() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        long first = publish(1);
+        publish(2);
+
+        String received = awaitContent(live, body -> body.contains(id(first + 1)));
+        assertThat(received).contains("id:" + id(first), "event:ITEM_CREATED", "\"id\":1")
+                .containsSubsequence(id(first), id(first + 1));
+
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", id(first)));
+        publish(3);
+        assertThat(awaitContent(resumed, body -> body.contains(id(first + 2))))
+                .contains(id(first + 1))
+                .doesNotContain("id:" + id(first) + "\n");
+
+        MvcResult after = subscribe(get("/events").param("after", id(first + 2)));
+        publish(4);
+        assertThat(awaitContent(after, body -> body.contains(id(first + 3))))
+                .doesNotContain(id(first + 2));
+    }
+
+    @Test
+    void readerLappedByMoreThanCapacityEventsIsEvictedWithResumeId() throws Exception {
+        long first = publish(0);
+        for (int i = 1; i <= ring.capacity(); i++) {
+            publish(i);
+        }
+
+        MvcResult lapped = subscribe(get("/events").header("Last-Event-ID", id(first - 1)));
+
+        String received = awaitContent(lapped, body -> body.contains("EVICTED"));
+        assertThat(received).contains("\"lastEventId\":\"" + id(ring.head() - 1) + "\"")
+                .doesNotContain("ITEM_CREATED");
+        awaitCompleted(lapped);
+    }
+
+    @Test
+    void idFromAnotherEpochIsEvictedAtOnce() throws Exception {
+        publish(1);
+
+        MvcResult stale = subscribe(get("/events").header("Last-Event-ID", (ring.epoch() - 1) + "-1"));
+
+        assertThat(awaitContent(stale, body -> body.contains("EVICTED")))
+                .contains("\"lastEventId\":\"" + id(ring.head() - 1) + "\"");
+        awaitCompleted(stale);
+    }
+
+    @Test
+    void malformedIdIsRejected() throws Exception {
+        mvc.perform(get("/events").header("Last-Event-ID", "вчера").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void idleSubscriberGetsHeartbeats() throws Exception {
+        MvcResult idle = subscribe(get("/events"));
+
+        assertThat(awaitContent(idle, body -> body.contains(":heartbeat"))).doesNotContain("event:");
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder request) throws Exception {
+        return mvc.perform(request.accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private long publish(long id) {
+        return ring.publish(DomainEventType.ITEM_CREATED, id, 0, null).sequence();
+    }
+
+    private String id(long sequence) {
+        return ring.epoch() + "-" + sequence;
+    }
+
+    private static String awaitContent(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        while (!condition.test(body)) {
+            assertThat(System.currentTimeMillis()).as("ответ подписчика: %s", body).isLessThan(deadline);
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+
+    // отключённый подписчик завершает асинхронный запрос, иначе ожидание падает по таймауту
+    private static void awaitCompleted(MvcResult result) {
+        result.getAsyncResult(TIMEOUT_MILLIS);
+    }
+}
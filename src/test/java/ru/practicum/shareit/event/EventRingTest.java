@@ -0,0 +1,49 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventRingTest {
+    private final EventRing ring = new EventRing(4);
+
+    @Test
+    void readerSeesPublishedEventsAndDetectsOverwrittenOnes() {
+        long first = ring.head();
+        assertThat(ring.get(first)).isNull();
+
+        for (int i = 0; i < 6; i++) {
+            ring.publish(DomainEventType.ITEM_CREATED, i, 0, null);
+        }
+
+        assertThat(ring.head()).isEqualTo(first + 6);
+        assertThat(ring.get(first + 5).id()).isEqualTo(5);
+        assertThat(ring.get(first + 2).sequence()).isEqualTo(first + 2);
+        assertThat(ring.get(first).sequence()).isEqualTo(first + 4);
+        assertThat(ring.get(first + 6)).isNull();
+    }
+
+    @Test
+    void awaitReturnsWhenEventIsPublished() throws Exception {
+        long sequence = ring.head();
+        CompletableFuture<DomainEvent> reader = CompletableFuture.supplyAsync(() -> {
+            while (ring.get(sequence) == null) {
+                ring.await(sequence, TimeUnit.SECONDS.toNanos(10));
+            }
+            return ring.get(sequence);
+        });
+
+        ring.publish(DomainEventType.USER_DELETED, 7, 1, null);
+
+        assertThat(reader.get(5, TimeUnit.SECONDS).id()).isEqualTo(7);
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new EventRing(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
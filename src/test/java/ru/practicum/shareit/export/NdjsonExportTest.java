@@ -0,0 +1,118 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class NdjsonExportTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsOwnerItemsLineByLine() throws Exception {
+        long owner = createUser("ndjson-owner@mail.ru");
+        long other = createUser("ndjson-other@mail.ru");
+        long drill = createItem(owner, "Дрель", true);
+        long saw = createItem(owner, "Пила", false);
+        createItem(other, "Молоток", true);
+
+        List<JsonNode> lines = export(get("/items").header(USER_HEADER, owner));
+
+        assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactlyInAnyOrder(drill, saw);
+        assertThat(lines).extracting(line -> line.get("name").asText()).containsExactlyInAnyOrder("Дрель", "Пила");
+    }
+
+    @Test
+    void unknownOwnerIsNotFoundBeforeStreaming() throws Exception {
+        MvcResult started = mvc.perform(get("/items").header(USER_HEADER, 999_999)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.errorMessage").exists());
+    }
+
+    @Test
+    void exportsAvailableItemsBySearch() throws Exception {
+        long owner = createUser("ndjson-search@mail.ru");
+        long available = createItem(owner, "Газонокосилка", true);
+        createItem(owner, "Газонокосилка сломанная", false);
+
+        List<JsonNode> lines = export(get("/items/search").param("text", "газонокосилка"));
+
+        assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactly(available);
+    }
+
+    @Test
+    void exportsAllUsers() throws Exception {
+        long user = createUser("ndjson-users@mail.ru");
+
+        List<JsonNode> lines = export(get("/users"));
+
+        assertThat(lines).extracting(line -> line.get("id").asLong()).contains(user);
+        assertThat(lines).extracting(line -> line.get("email").asText()).contains("ndjson-users@mail.ru");
+    }
+
+    private List<JsonNode> export(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mvc.perform(request.accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private long createUser(String email) throws Exception {
+        return id(mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ndjson\",\"email\":\"" + email + "\"}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+
+    private long createItem(long owner, String name, boolean available) throws Exception {
+        return id(mvc.perform(post("/items").header(USER_HEADER, owner).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"description\":\"Для выгрузки\",\"available\":"
+                                + available + "}"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+
+    private long id(String body) throws Exception {
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
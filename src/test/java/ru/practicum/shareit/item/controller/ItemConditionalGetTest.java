@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemConditionalGetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void unchangedItemAndOwnerListAreNotModifiedUntilPatched() throws Exception {
+        long owner = id(mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"etag\",\"email\":\"etag@mail.ru\"}")).andReturn().getResponse()
+                .getContentAsString());
+        long item = id(mvc.perform(post("/items").header(USER_HEADER, owner).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Дрель\",\"description\":\"Простая\",\"available\":true}")).andReturn()
+                .getResponse().getContentAsString());
+
+        String itemTag = mvc.perform(get("/items/" + item)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String listTag = mvc.perform(get("/items").header(USER_HEADER, owner)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(itemTag).isNotBlank();
+        assertThat(listTag).isNotBlank();
+
+        mvc.perform(get("/items/" + item).header(HttpHeaders.IF_NONE_MATCH, itemTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mvc.perform(get("/items").header(USER_HEADER, owner).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(patch("/items/" + item).header(USER_HEADER, owner).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"Ударная\"}")).andExpect(status().isOk());
+
+        mvc.perform(get("/items/" + item).header(HttpHeaders.IF_NONE_MATCH, itemTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(itemTag)));
+        mvc.perform(get("/items").header(USER_HEADER, owner).header(HttpHeaders.IF_NONE_MATCH, listTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void warmConditionalGetDoesNotTouchRepositories() throws Exception {
+        long owner = id(mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"warm\",\"email\":\"warm-etag@mail.ru\"}")).andReturn().getResponse()
+                .getContentAsString());
+        long item = id(mvc.perform(post("/items").header(USER_HEADER, owner).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Пила\",\"description\":\"Ножовка\",\"available\":true}")).andReturn()
+                .getResponse().getContentAsString());
+        String itemTag = mvc.perform(get("/items/" + item)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String userTag = mvc.perform(get("/users/" + owner)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        long before = repositoryCalls();
+        assertThat(before).isPositive();
+        mvc.perform(get("/items/" + item).header(HttpHeaders.IF_NONE_MATCH, itemTag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/users/" + owner).header(HttpHeaders.IF_NONE_MATCH, userTag))
+                .andExpect(status().isNotModified());
+
+        assertThat(repositoryCalls()).isEqualTo(before);
+    }
+
+    @Test
+    void listTagDependsOnThePage() throws Exception {
+        long owner = id(mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"pages\",\"email\":\"pages-etag@mail.ru\"}")).andReturn().getResponse()
+                .getContentAsString());
+        for (String name : new String[]{"Дрель", "Пила"}) {
+            mvc.perform(post("/items").header(USER_HEADER, owner).contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"" + name + "\",\"description\":\"Для страниц\",\"available\":true}"))
+                    .andExpect(status().isOk());
+        }
+
+        String firstTag = mvc.perform(get("/items").header(USER_HEADER, owner).param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items").header(USER_HEADER, owner).param("from", "1").param("size", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, firstTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(firstTag)));
+        mvc.perform(get("/items").header(USER_HEADER, owner).header(HttpHeaders.IF_NONE_MATCH, firstTag))
+                .andExpect(status().isOk());
+        mvc.perform(get("/items").header(USER_HEADER, owner).param("from", "0").param("size", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, firstTag))
+                .andExpect(status().isNotModified());
+    }
+
+    private long repositoryCalls() {
+        return meterRegistry.find("shareit.repository").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private long id(String body) throws Exception {
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
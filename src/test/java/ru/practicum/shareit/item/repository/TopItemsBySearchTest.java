@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserCompactRepository;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopItemsBySearchTest {
+
+    @Test
+    void memoryRepositoryRanksNameMatchesFirstAndKeepsOnlyLimit() {
+        ItemRepository repository = populate(new UserMemoryRepository(), new ItemMemoryRepository());
+
+        assertThat(repository.getTopItemsBySearch("дрель", 3)).extracting(Item::getName)
+                .containsExactly("Дрель", "Дрель ударная", "Набор");
+        assertThat(repository.getTopItemsBySearch("ударная дрель", 10)).extracting(Item::getName)
+                .containsExactly("Дрель ударная", "Набор");
+        assertThat(repository.getTopItemsBySearch("экскаватор", 10)).isEmpty();
+    }
+
+    @Test
+    void compactRepositoryRanksLikeMemoryRepository() {
+        UserRepository users = new UserCompactRepository();
+        ItemRepository compact = populate(users, new ItemCompactRepository(users));
+        ItemRepository memory = populate(new UserMemoryRepository(), new ItemMemoryRepository());
+
+        for (String text : List.of("дрель", "ударная дрель", "ре", "пила")) {
+            assertThat(compact.getTopItemsBySearch(text, 4)).extracting(Item::getId)
+                    .isEqualTo(memory.getTopItemsBySearch(text, 4).stream().map(Item::getId).toList());
+        }
+    }
+
+    private static ItemRepository populate(UserRepository users, ItemRepository items) {
+        User owner = users.addUser(new User("owner", "owner@mail.ru"));
+        items.addItems(List.of(
+                item(owner, "Пила", "Ручная пила, не дрель", true),
+                item(owner, "Набор", "Дрель, ударная дрель и биты", true),
+                item(owner, "Дрель ударная", "Сетевая", true),
+                item(owner, "Дрель", "Простая", true),
+                item(owner, "Дрель", "На ремонте", false)
+        ));
+        return items;
+    }
+
+    private static Item item(User owner, String name, String description, boolean available) {
+        Item item = new Item(name, description, available);
+        item.setOwner(owner);
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.event.EventRing;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemServiceBatchTest {
+    private final List<Integer> chunks = new ArrayList<>();
+    private final List<Collection<Long>> requestLookups = new ArrayList<>();
+    private ItemMemoryRepository itemRepository;
+    private ItemService itemService;
+    private long ownerId;
+    private long requestId;
+
+    @BeforeEach
+    void setUp() {
+        UserMemoryRepository userRepository = new UserMemoryRepository();
+        itemRepository = new ItemMemoryRepository() {
+            @Override
+            public List<Item> addItems(List<Item> items) {
+                chunks.add(items.size());
+                return super.addItems(items);
+            }
+        };
+        ItemRequestMemoryRepository requestRepository = new ItemRequestMemoryRepository() {
+            @Override
+            public List<ItemRequest> getRequestsByIds(Collection<Long> ids) {
+                requestLookups.add(List.copyOf(ids));
+                return super.getRequestsByIds(ids);
+            }
+        };
+        itemService = new ItemServiceImpl(itemRepository,
+                new RequestLoaders(userRepository, itemRepository, requestRepository),
+                new ObjectMapper().findAndRegisterModules(), new EventRing(1024));
+        User owner = userRepository.addUser(new User("owner", "batch@mail.ru"));
+        ownerId = owner.getId();
+        requestId = requestRepository.addRequest(new ItemRequest("Нужна дрель", owner)).getId();
+    }
+
+    @Test
+    void largeImportIsWrittenInChunks() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            body.append(item("Дрель " + i, "true")).append('\n');
+        }
+
+        ItemBatchResultDto result = itemService.addItems(ownerId, stream(body.toString()));
+
+        assertThat(result.getCreated()).isEqualTo(2500);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(chunks).containsExactly(1000, 1000, 500);
+        assertThat(itemRepository.getAllItemsByUserId(ownerId, PageParams.ALL)).hasSize(2500);
+    }
+
+    @Test
+    void badRowsAreReportedByNumberAndGoodRowsAreCreated() throws IOException {
+        String body = "[" + String.join(",",
+                item("Дрель", "true"),
+                "{\"name\":\"Пила\",\"description\":\"Пила\",\"available\":\"может быть\"}",
+                "{\"name\":\"\",\"description\":\"Без имени\",\"available\":true}",
+                "{\"name\":\"Лобзик\",\"description\":\"Лобзик\",\"available\":true,\"request\":999}",
+                "{\"name\":\"Рубанок\",\"description\":\"Рубанок\",\"available\":true,\"request\":" + requestId + "}",
+                item("Стремянка", "false")) + "]";
+
+        ItemBatchResultDto result = itemService.addItems(ownerId, stream(body));
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ItemBatchErrorDto::getRow).containsExactly(1, 2, 3);
+        assertThat(result.getErrors().get(0).getErrorMessage()).startsWith("Строка не разобрана");
+        assertThat(result.getErrors().get(1).getErrorMessage()).isEqualTo("Вещь не прошла проверку.");
+        assertThat(result.getErrors().get(2).getErrorMessage()).contains("999");
+        assertThat(itemRepository.getItemsByRequestIds(List.of(requestId)))
+                .extracting(Item::getName).containsExactly("Рубанок");
+    }
+
+    @Test
+    void requestsOfTheWholeImportAreLookedUpOnce() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            long request = i % 2 == 0 ? requestId : 999;
+            body.append("{\"name\":\"Дрель\",\"description\":\"Дрель\",\"available\":true,\"request\":")
+                    .append(request).append("}\n");
+        }
+
+        ItemBatchResultDto result = itemService.addItems(ownerId, stream(body.toString()));
+
+        assertThat(result.getCreated()).isEqualTo(1250);
+        assertThat(result.getErrors()).hasSize(1250);
+        assertThat(result.getErrors()).extracting(ItemBatchErrorDto::getRow).isSorted();
+        assertThat(requestLookups).containsExactly(List.of(requestId, 999L));
+    }
+
+    @Test
+    void malformedBodyStopsImportButKeepsEarlierRows() throws IOException {
+        String body = item("Дрель", "true") + "\n" + item("Пила", "true") + "\n{\"name\": \"Лобзик\", \"descr";
+
+        ItemBatchResultDto result = itemService.addItems(ownerId, stream(body));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getRow()).isEqualTo(2);
+        assertThat(result.getErrors().get(0).getErrorMessage()).startsWith("Тело запроса не разобрано");
+        assertThat(itemRepository.getAllItemsByUserId(ownerId, PageParams.ALL))
+                .extracting(Item::getName).containsExactly("Дрель", "Пила");
+    }
+
+    @Test
+    void unknownOwnerIsRejectedBeforeReading() {
+        assertThatThrownBy(() -> itemService.addItems(999, stream(item("Дрель", "true"))))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(chunks).isEmpty();
+    }
+
+    private static String item(String name, String available) {
+        return "{\"name\":\"" + name + "\",\"description\":\"" + name + " для дома\",\"available\":" + available + "}";
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// без веб-окружения: иначе загрузчики запроса живут весь тест и запоминают уже прочитанные вещи
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemServiceCacheTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void readAfterUpdateSeesNewStateThroughCache() {
+        long owner = userService.addUser(new UserDto("cache", "cache@mail.ru")).getId();
+        long id = itemService.addItem(owner, new ItemDto("Дрель", "Простая дрель", true, null)).getId();
+        assertThat(itemService.getItemById(id).getDescription()).isEqualTo("Простая дрель");
+        assertThat(userService.getUserById(owner).getName()).isEqualTo("cache");
+        assertThat(cacheManager.getCache("items").get(id)).isNotNull();
+
+        ItemPatchDto itemPatch = new ItemPatchDto();
+        itemPatch.setDescription("Ударная дрель");
+        itemService.updateItem(owner, id, itemPatch, false);
+        UserPatchDto userPatch = new UserPatchDto();
+        userPatch.setName("renamed");
+        userService.updateUser(owner, userPatch, false);
+
+        ItemDto item = itemService.getItemById(id);
+        assertThat(item.getDescription()).isEqualTo("Ударная дрель");
+        assertThat(item.getVersion()).isEqualTo(1);
+        assertThat(itemService.getItemById(id)).isEqualTo(item);
+        assertThat(userService.getUserById(owner).getName()).isEqualTo("renamed");
+    }
+
+    @Test
+    void staleEntryCachedBeforeUpdateIsDropped() {
+        long owner = userService.addUser(new UserDto("stale", "stale-cache@mail.ru")).getId();
+        long id = itemService.addItem(owner, new ItemDto("Пила", "Ножовка", true, null)).getId();
+        ItemDto stale = new ItemDto("Пила", "Чужое состояние", true, null);
+        stale.setId(id);
+        cacheManager.getCache("items").put(id, stale);
+
+        ItemPatchDto patch = new ItemPatchDto();
+        patch.setAvailable(false);
+        itemService.updateItem(owner, id, patch, false);
+
+        assertThat(itemService.getItemById(id).getDescription()).isEqualTo("Ножовка");
+        assertThat(itemService.getItemById(id).getAvailable()).isFalse();
+
+        userService.deleteUser(owner);
+        assertThatThrownBy(() -> itemService.getItemById(id)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> userService.getUserById(owner)).isInstanceOf(NotFoundException.class);
+    }
+}
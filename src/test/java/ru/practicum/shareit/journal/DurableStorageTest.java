@@ -0,0 +1,169 @@
+package ru.practicum.shareit.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemField;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurableStorageTest {
+    private static final long SEGMENT_SIZE = 1 << 20;
+
+    @TempDir
+    private Path directory;
+
+    private final List<FileJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws InterruptedException {
+        for (FileJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void stateIsRestoredFromSnapshotAndLaterSegments() throws IOException {
+        Storage before = open();
+        User owner = before.users.addUser(new User("Иван", "ivan@mail.ru"));
+        Item drill = before.items.addItem(item("Дрель", owner));
+        ItemRequest request = before.requests.addRequest(new ItemRequest("Нужна пила", owner));
+        before.storage.snapshot();
+
+        Item saw = item("Пила", owner);
+        saw.setRequestId(request.getId());
+        before.items.addItem(saw);
+        Item renamed = new Item(drill);
+        renamed.setName("Ударная дрель");
+        assertThat(before.items.updateItem(renamed, EnumSet.of(ItemField.NAME))).isTrue();
+        User moved = new User(owner);
+        moved.setEmail("ivan@yandex.ru");
+        assertThat(before.users.updateUser(moved, EnumSet.of(UserField.EMAIL)))
+                .isEqualTo(UserRepository.UpdateResult.UPDATED);
+
+        Storage after = open();
+
+        User restored = after.users.getUserById(owner.getId());
+        assertThat(restored.getEmail()).isEqualTo("ivan@yandex.ru");
+        assertThat(restored.getVersion()).isEqualTo(1);
+        assertThat(after.users.isEmailPresent("ivan@mail.ru")).isFalse();
+        assertThat(after.items.getItemById(drill.getId()).getName()).isEqualTo("Ударная дрель");
+        assertThat(after.items.getItemById(drill.getId()).getVersion()).isEqualTo(1);
+        assertThat(after.items.getItemById(drill.getId()).getOwner()).isSameAs(restored);
+        assertThat(after.items.getItemsByRequestIds(List.of(request.getId())))
+                .extracting(Item::getName).containsExactly("Пила");
+        assertThat(after.requests.getRequestById(request.getId()).getCreated()).isEqualTo(request.getCreated());
+        assertThat(after.items.getItemsBySearch("дрель", PageParams.ALL)).hasSize(1);
+    }
+
+    @Test
+    void deletedOwnerStaysDeletedAfterReplay() throws IOException {
+        Storage before = open();
+        User owner = before.users.addUser(new User("Иван", "ivan@mail.ru"));
+        Item drill = before.items.addItem(item("Дрель", owner));
+        Item stale = new Item(drill);
+        User staleOwner = new User(owner);
+
+        before.items.deleteAllItemsByUserId(owner.getId());
+        before.users.deleteUser(owner.getId());
+        // изменения, проигравшие гонку с удалением, не должны попасть в журнал
+        stale.setDescription("Дрель с набором бит");
+        assertThat(before.items.updateItem(stale, EnumSet.of(ItemField.DESCRIPTION))).isFalse();
+        staleOwner.setName("Пётр");
+        assertThat(before.users.updateUser(staleOwner, EnumSet.of(UserField.NAME)))
+                .isEqualTo(UserRepository.UpdateResult.STALE);
+
+        Storage after = open();
+
+        assertThat(after.users.getUserById(owner.getId())).isNull();
+        assertThat(after.users.isEmailPresent("ivan@mail.ru")).isFalse();
+        assertThat(after.items.getItemById(drill.getId())).isNull();
+        assertThat(after.items.getItemsBySearch("дрель", PageParams.ALL)).isEmpty();
+    }
+
+    @Test
+    void unfinishedTailIsCutOffOnRecovery() throws IOException, InterruptedException {
+        Storage before = open();
+        User owner = before.users.addUser(new User("Иван", "ivan@mail.ru"));
+        before.journal.close();
+        Path segment = FileJournal.segmentPath(directory, 0);
+        long written = Files.size(segment);
+        byte[] frame = JournalCodec.encode(new JournalEntry.UserSaved(2, "Пётр", "petr@mail.ru", 0));
+        Files.write(segment, Arrays.copyOf(frame, frame.length / 2), StandardOpenOption.APPEND);
+
+        Storage after = open();
+
+        assertThat(Files.size(segment)).isEqualTo(written);
+        assertThat(after.users.getUserById(owner.getId()).getEmail()).isEqualTo("ivan@mail.ru");
+        assertThat(after.users.getUserById(2L)).isNull();
+        // запись после восстановления идёт в новый сегмент и читается при следующем старте
+        after.users.addUser(new User("Пётр", "petr@mail.ru"));
+        assertThat(open().users.isEmailPresent("petr@mail.ru")).isTrue();
+    }
+
+    @Test
+    void corruptedEntryStopsReplayOfItsSegment() throws IOException {
+        Storage before = open();
+        before.users.addUser(new User("Иван", "ivan@mail.ru"));
+        before.users.addUser(new User("Пётр", "petr@mail.ru"));
+        Path segment = FileJournal.segmentPath(directory, 0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segment, bytes);
+
+        Storage after = open();
+
+        assertThat(after.users.isEmailPresent("ivan@mail.ru")).isTrue();
+        assertThat(after.users.isEmailPresent("petr@mail.ru")).isFalse();
+    }
+
+    private Storage open() throws IOException {
+        FileJournal journal = new FileJournal(directory, SEGMENT_SIZE);
+        journals.add(journal);
+        Storage storage = new Storage(journal, new UserMemoryRepository(journal), new ItemMemoryRepository(journal),
+                new ItemRequestMemoryRepository(journal));
+        storage.storage.recover();
+        return storage;
+    }
+
+    private static Item item(String name, User owner) {
+        Item item = new Item(name, name + " для дома", true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private class Storage {
+        final FileJournal journal;
+        final UserMemoryRepository users;
+        final ItemMemoryRepository items;
+        final ItemRequestMemoryRepository requests;
+        final DurableStorage storage;
+
+        Storage(FileJournal journal, UserMemoryRepository users, ItemMemoryRepository items,
+                ItemRequestMemoryRepository requests) {
+            this.journal = journal;
+            this.users = users;
+            this.items = items;
+            this.requests = requests;
+            this.storage = new DurableStorage(journal, users, items, requests, directory);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalCodecTest {
+
+    @Test
+    void everyEntryTypeSurvivesRoundTrip() {
+        List<JournalEntry> entries = List.of(
+                new JournalEntry.UserSaved(1, "Иван", "ivan@mail.ru", 3),
+                new JournalEntry.UserSaved(2, null, null, 0),
+                new JournalEntry.UserDeleted(2),
+                new JournalEntry.ItemSaved(5, 1, "Дрель", "Ударная дрель", true, 7L, 2),
+                new JournalEntry.ItemSaved(6, 1, "Пила", "", false, null, 0),
+                new JournalEntry.ItemsDeleted(1),
+                new JournalEntry.RequestSaved(7, 1, "Нужна дрель", LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456789)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        entries.forEach(entry -> buffer.put(JournalCodec.encode(entry)));
+        buffer.flip();
+
+        for (JournalEntry entry : entries) {
+            assertThat(JournalCodec.decode(buffer)).isEqualTo(entry);
+        }
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void truncatedFrameIsNotDecoded() {
+        byte[] frame = JournalCodec.encode(new JournalEntry.UserSaved(1, "Иван", "ivan@mail.ru", 0));
+        ByteBuffer buffer = ByteBuffer.wrap(frame, 0, frame.length - 1).slice();
+
+        assertThat(JournalCodec.decode(buffer)).isNull();
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    void frameWithBrokenChecksumIsNotDecoded() {
+        byte[] frame = JournalCodec.encode(new JournalEntry.ItemsDeleted(42));
+        frame[frame.length - 1] ^= 1;
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+
+        assertThat(JournalCodec.decode(buffer)).isNull();
+        assertThat(buffer.position()).isZero();
+    }
+}
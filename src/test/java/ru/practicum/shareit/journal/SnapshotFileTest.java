@@ -0,0 +1,61 @@
+package ru.practicum.shareit.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotFileTest {
+    // участок меньше записи: каждая запись пересекает границу участка хотя бы раз
+    private static final long TINY_WINDOW = 64;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void entriesCrossingWindowsSurviveRoundTrip() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            entries.add(new JournalEntry.ItemSaved(i, 1, "Дрель " + i, "д".repeat(i % 7 == 0 ? 300 : 5),
+                    true, null, i));
+        }
+        Path path = SnapshotFile.path(directory, 7);
+
+        assertThat(SnapshotFile.write(path, 7, sink -> entries.forEach(sink), TINY_WINDOW)).isEqualTo(500);
+
+        List<JournalEntry> read = new ArrayList<>();
+        assertThat(SnapshotFile.read(path, read::add, TINY_WINDOW)).isEqualTo(7);
+        assertThat(read).isEqualTo(entries);
+        List<JournalEntry> readWhole = new ArrayList<>();
+        SnapshotFile.read(path, readWhole::add);
+        assertThat(readWhole).isEqualTo(entries);
+    }
+
+    @Test
+    void damagedEntryBehindWindowBoundaryIsReported() throws IOException {
+        Path path = SnapshotFile.path(directory, 1);
+        SnapshotFile.write(path, 1, sink -> {
+            for (int i = 1; i <= 50; i++) {
+                sink.accept(new JournalEntry.UserSaved(i, "Иван", "ivan" + i + "@mail.ru", 0));
+            }
+        }, TINY_WINDOW);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            long middle = file.length() / 2;
+            file.seek(middle);
+            int value = file.read();
+            file.seek(middle);
+            file.write(value ^ 0xFF);
+        }
+
+        assertThatThrownBy(() -> SnapshotFile.read(path, entry -> { }, TINY_WINDOW))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("повреждён");
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение импорта через HTTP: те же строки добавляются по одной через {@code POST /items}
+ * (запрос за запросом, как это делает клиентский скрипт) и одним {@code POST /items/batch} в NDJSON.
+ * Запускается явно, как и {@link RestApiLoadTest}:
+ * {@code mvn test -Dtest=BatchImportLoadTest -Dshareit.loadtest=true -Dshareit.loadtest.rows=10000}.
+ * Итог сохраняется в {@code target/loadtest/batch-import.txt}.
+ */
+@EnabledIfSystemProperty(named = "shareit.loadtest", matches = "true")
+class BatchImportLoadTest {
+    private static final int ROWS = Integer.getInteger("shareit.loadtest.rows", 10_000);
+    private static final int ROUNDS = Integer.getInteger("shareit.loadtest.rounds", 3);
+    private static final String PROFILES = System.getProperty("shareit.loadtest.profiles", "");
+    private static final Path RESULT_DIR = Path.of(System.getProperty("shareit.loadtest.resultDir", "target/loadtest"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String baseUrl;
+
+    @Test
+    void batchImportOutrunsSinglePosts() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(ShareItApp.class)
+                .properties("server.port=0", "logging.level.ru.practicum.shareit=WARN");
+        if (!PROFILES.isBlank()) {
+            application.profiles(PROFILES.split(","));
+        }
+        // все строки идут от одного пользователя: ограничение частоты на пользователя сняли бы сами запросы
+        try (ConfigurableApplicationContext context = application.run("--shareit.admission.user-rate=1000000",
+                "--shareit.admission.user-burst=1000000");
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            // первый круг прогревает оба пути и не учитывается
+            double singleRate = 0;
+            double batchRate = 0;
+            for (int round = 0; round <= ROUNDS; round++) {
+                long owner = addUser(client, round);
+                double single = importSingly(client, owner);
+                double batch = importBatch(client, owner);
+                if (round > 0) {
+                    singleRate += single / ROUNDS;
+                    batchRate += batch / ROUNDS;
+                }
+            }
+            String report = String.format(Locale.ROOT,
+                    "rows=%d rounds=%d profiles=%s%nPOST /items       %10.0f items/s%n"
+                            + "POST /items/batch %10.0f items/s%nspeedup           %10.1fx%n",
+                    ROWS, ROUNDS, PROFILES.isBlank() ? "default" : PROFILES, singleRate, batchRate,
+                    batchRate / singleRate);
+            System.out.print(report);
+            Files.createDirectories(RESULT_DIR);
+            Files.writeString(RESULT_DIR.resolve("batch-import.txt"), report);
+            assertThat(batchRate).isGreaterThan(singleRate);
+        }
+    }
+
+    private double importSingly(HttpClient client, long owner) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/items"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Sharer-User-Id", Long.toString(owner))
+                    .POST(HttpRequest.BodyPublishers.ofString(itemJson(i)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        }
+        return ROWS / seconds(start);
+    }
+
+    private double importBatch(HttpClient client, long owner) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            body.append(itemJson(i)).append('\n');
+        }
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/items/batch"))
+                .header("Content-Type", "application/x-ndjson")
+                .header("X-Sharer-User-Id", Long.toString(owner))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double rate = ROWS / seconds(start);
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        JsonNode result = objectMapper.readTree(response.body());
+        assertThat(result.get("created").asInt()).as(response.body()).isEqualTo(ROWS);
+        return rate;
+    }
+
+    private long addUser(HttpClient client, int round) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"name\":\"import" + round + "\",\"email\":\"import" + round + "@load.ru\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private static String itemJson(int i) {
+        return "{\"name\":\"Дрель " + i + "\",\"description\":\"Ударная дрель для импорта №" + i
+                + "\",\"available\":true}";
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Генератор нагрузки с постоянной частотой поступления (открытая модель): запрос номер i уходит
+ * в момент {@code start + i / rate}, не дожидаясь ответов на предыдущие. Задержка отсчитывается
+ * от запланированного момента, а не от фактической отправки, поэтому и очередь на сервере,
+ * и отставание самого генератора попадают в гистограммы — поправка на coordinated omission.
+ */
+final class FixedRateLoad {
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private final Histogram total = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    FixedRateLoad(HttpClient client, List<Operation> operations) {
+        this.client = client;
+        this.operations = operations;
+        int weight = 0;
+        for (Operation operation : operations) {
+            weight += operation.weight();
+            histograms.put(operation.name(), new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation.name(), new AtomicLong());
+        }
+        this.totalWeight = weight;
+    }
+
+    /**
+     * Подаёт нагрузку заданное время и ждёт ответов на все запросы. Замеры прошлого запуска
+     * сбрасываются, так что первый запуск годится для прогрева. Возвращает пропускную способность.
+     */
+    double run(double rate, long seconds, long seed) throws InterruptedException, ExecutionException,
+            TimeoutException {
+        reset();
+        SplittableRandom random = new SplittableRandom(seed);
+        long count = (long) (rate * seconds);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>((int) count);
+        long start = System.nanoTime();
+        for (long i = 0; i < count; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            for (long delay = intended - System.nanoTime(); delay > 0; delay = intended - System.nanoTime()) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = pick(random);
+            inFlight.add(client.sendAsync(operation.request().apply(random), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        record(operation.name(), intended, error == null && response.statusCode() < 300);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .get(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Задержки всех операций вместе, микросекунды.
+     */
+    Histogram total() {
+        return total;
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Печатает сводку по операциям и сохраняет распределения в формате HdrHistogram ({@code .hgrm})
+     * и сводку в {@code summary.csv}.
+     */
+    void report(PrintStream out, Path directory, double throughput) throws IOException {
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>();
+        lines.add("operation,requests,errors,p50Millis,p99Millis,p999Millis,maxMillis");
+        out.printf(Locale.ROOT, "Пропускная способность: %.1f запр/с%n", throughput);
+        out.printf(Locale.ROOT, "%-12s %9s %7s %9s %9s %9s %9s%n",
+                "операция", "запросов", "ошибок", "p50, мс", "p99, мс", "p999, мс", "max, мс");
+        Map<String, Histogram> rows = new LinkedHashMap<>(histograms);
+        rows.put("total", total);
+        for (Map.Entry<String, Histogram> row : rows.entrySet()) {
+            Histogram histogram = row.getValue();
+            long rowErrors = "total".equals(row.getKey()) ? totalErrors() : errors.get(row.getKey()).get();
+            String[] millis = {
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())
+            };
+            out.printf(Locale.ROOT, "%-12s %9d %7d %9s %9s %9s %9s%n", row.getKey(), histogram.getTotalCount(),
+                    rowErrors, millis[0], millis[1], millis[2], millis[3]);
+            lines.add(String.join(",", row.getKey(), Long.toString(histogram.getTotalCount()),
+                    Long.toString(rowErrors), String.join(",", millis)));
+            try (PrintStream distribution = new PrintStream(
+                    Files.newOutputStream(directory.resolve(row.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(distribution, 1000.0);
+            }
+        }
+        Files.write(directory.resolve("summary.csv"), lines);
+    }
+
+    static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.3f", toMillis(micros));
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Веса операций не сходятся.");
+    }
+
+    private void record(String operation, long intended, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+        histograms.get(operation).recordValue(micros);
+        total.recordValue(micros);
+        if (!success) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    private void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        total.reset();
+    }
+
+    /**
+     * Операция нагрузки: доля в смеси и построитель запроса; построитель вызывается
+     * из одного потока и может пользоваться генератором случайных чисел.
+     */
+    record Operation(String name, int weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+}
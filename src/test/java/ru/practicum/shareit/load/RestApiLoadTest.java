@@ -0,0 +1,165 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный тест REST API: поднимает приложение на случайном порту, наполняет его через
+ * контроллеры и подаёт смешанную нагрузку чтения и записи с постоянной частотой, см. {@link FixedRateLoad}.
+ * Падает, если процентили задержки выходят за бюджет. Запускается явно:
+ * {@code mvn test -Dtest=RestApiLoadTest -Dshareit.loadtest=true -Dshareit.loadtest.rate=500}.
+ * Распределения задержек сохраняются в {@code target/loadtest}.
+ */
+@EnabledIfSystemProperty(named = "shareit.loadtest", matches = "true")
+class RestApiLoadTest {
+    private static final double RATE = Double.parseDouble(System.getProperty("shareit.loadtest.rate", "200"));
+    private static final long WARMUP_SECONDS = Long.getLong("shareit.loadtest.warmupSeconds", 10);
+    private static final long SECONDS = Long.getLong("shareit.loadtest.seconds", 30);
+    private static final int USERS = Integer.getInteger("shareit.loadtest.users", 100);
+    private static final int ITEMS = Integer.getInteger("shareit.loadtest.items", 10_000);
+    private static final long SEED = Long.getLong("shareit.loadtest.seed", 42);
+    private static final String MIX = System.getProperty("shareit.loadtest.mix",
+            "item=40,search=20,ownerItems=10,user=10,users=5,addItem=10,patchItem=5");
+    private static final String PROFILES = System.getProperty("shareit.loadtest.profiles", "");
+    private static final double BUDGET_P50_MILLIS =
+            Double.parseDouble(System.getProperty("shareit.loadtest.budget.p50Millis", "10"));
+    private static final double BUDGET_P99_MILLIS =
+            Double.parseDouble(System.getProperty("shareit.loadtest.budget.p99Millis", "50"));
+    private static final double BUDGET_P999_MILLIS =
+            Double.parseDouble(System.getProperty("shareit.loadtest.budget.p999Millis", "200"));
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("shareit.loadtest.budget.maxErrorRate", "0"));
+    private static final Path RESULT_DIR = Path.of(System.getProperty("shareit.loadtest.resultDir", "target/loadtest"));
+    private static final int PAGE_SIZE = 20;
+    private static final String[] NAMES = {"Дрель", "Пила", "Шуруповёрт", "Стремянка", "Перфоратор", "Лобзик",
+            "Болгарка", "Палатка", "Велосипед", "Самокат"};
+    private static final String[] ADJECTIVES = {"ударная", "аккумуляторная", "простая", "складная",
+            "туристическая", "мощная", "лёгкая", "детская"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> itemOwners = new ArrayList<>();
+    private String baseUrl;
+
+    @Test
+    void mixedWorkloadStaysWithinLatencyBudget() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(ShareItApp.class)
+                .properties("server.port=0", "logging.level.ru.practicum.shareit=WARN");
+        if (!PROFILES.isBlank()) {
+            application.profiles(PROFILES.split(","));
+        }
+        try (ConfigurableApplicationContext context = application.run();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            populate(client);
+            FixedRateLoad load = new FixedRateLoad(client, operations());
+            load.run(RATE, WARMUP_SECONDS, SEED);
+            double throughput = load.run(RATE, SECONDS, SEED + 1);
+            load.report(System.out, RESULT_DIR, throughput);
+
+            Histogram latency = load.total();
+            assertThat(load.totalErrors()).as("ошибок")
+                    .isLessThanOrEqualTo((long) (MAX_ERROR_RATE * latency.getTotalCount()));
+            assertThat(FixedRateLoad.toMillis(latency.getValueAtPercentile(50))).as("p50, мс")
+                    .isLessThanOrEqualTo(BUDGET_P50_MILLIS);
+            assertThat(FixedRateLoad.toMillis(latency.getValueAtPercentile(99))).as("p99, мс")
+                    .isLessThanOrEqualTo(BUDGET_P99_MILLIS);
+            assertThat(FixedRateLoad.toMillis(latency.getValueAtPercentile(99.9))).as("p999, мс")
+                    .isLessThanOrEqualTo(BUDGET_P999_MILLIS);
+        }
+    }
+
+    private void populate(HttpClient client) throws IOException, InterruptedException {
+        for (int i = 0; i < USERS; i++) {
+            String body = "{\"name\":\"user" + i + "\",\"email\":\"user" + i + "@load.ru\"}";
+            userIds.add(idOf(client.send(post("/users", body).build(), HttpResponse.BodyHandlers.ofString())));
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < ITEMS; i++) {
+            long owner = userIds.get(i % USERS);
+            HttpRequest request = post("/items", itemJson(random)).header("X-Sharer-User-Id", Long.toString(owner))
+                    .build();
+            itemIds.add(idOf(client.send(request, HttpResponse.BodyHandlers.ofString())));
+            itemOwners.add(owner);
+        }
+    }
+
+    private List<FixedRateLoad.Operation> operations() {
+        List<FixedRateLoad.Operation> operations = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split("=");
+            operations.add(new FixedRateLoad.Operation(parts[0], Integer.parseInt(parts[1]), switch (parts[0]) {
+                case "item" -> random -> get("/items/" + itemIds.get(random.nextInt(itemIds.size()))).build();
+                case "search" -> random -> get("/items/search?size=" + PAGE_SIZE + "&text="
+                        + URLEncoder.encode(term(random), StandardCharsets.UTF_8)).build();
+                case "ownerItems" -> random -> get("/items?size=" + PAGE_SIZE)
+                        .header("X-Sharer-User-Id", Long.toString(userIds.get(random.nextInt(USERS)))).build();
+                case "user" -> random -> get("/users/" + userIds.get(random.nextInt(USERS))).build();
+                case "users" -> random -> get("/users?size=" + PAGE_SIZE).build();
+                case "addItem" -> random -> post("/items", itemJson(random))
+                        .header("X-Sharer-User-Id", Long.toString(userIds.get(random.nextInt(USERS)))).build();
+                case "patchItem" -> random -> {
+                    int index = random.nextInt(itemIds.size());
+                    String body = "{\"description\":\"" + description(random) + "\"}";
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/items/" + itemIds.get(index)))
+                            .header("Content-Type", "application/merge-patch+json")
+                            .header("X-Sharer-User-Id", Long.toString(itemOwners.get(index)))
+                            .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                };
+                default -> throw new IllegalArgumentException("Неизвестная операция нагрузки: " + parts[0]);
+            }));
+        }
+        return operations;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private long idOf(HttpResponse<String> response) throws IOException {
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private static String itemJson(SplittableRandom random) {
+        return "{\"name\":\"" + NAMES[random.nextInt(NAMES.length)] + "\",\"description\":\""
+                + description(random) + "\",\"available\":" + (random.nextInt(10) > 0) + "}";
+    }
+
+    private static String description(SplittableRandom random) {
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NAMES[random.nextInt(NAMES.length)].toLowerCase()
+                + " №" + random.nextInt(1000);
+    }
+
+    private static String term(SplittableRandom random) {
+        return random.nextBoolean() ? ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                : NAMES[random.nextInt(NAMES.length)].toLowerCase();
+    }
+}
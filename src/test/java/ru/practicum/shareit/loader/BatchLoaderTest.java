@@ -0,0 +1,64 @@
+package ru.practicum.shareit.loader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchLoaderTest {
+    private final List<Collection<Long>> requested = new ArrayList<>();
+    private BatchLoader<Long, User> loader;
+
+    @BeforeEach
+    void setUp() {
+        UserMemoryRepository repository = new UserMemoryRepository();
+        for (int i = 1; i <= 3; i++) {
+            repository.addUser(new User("user" + i, "user" + i + "@mail.ru"));
+        }
+        loader = new BatchLoader<>(ids -> {
+            requested.add(List.copyOf(ids));
+            return repository.getUsersByIds(ids);
+        }, User::getId);
+    }
+
+    @Test
+    void primedKeysAreFetchedWithTheFirstLoad() {
+        loader.prime(1L);
+        loader.prime(2L);
+        loader.prime(99L);
+
+        assertThat(loader.load(3L).getName()).isEqualTo("user3");
+        assertThat(loader.load(1L).getName()).isEqualTo("user1");
+        assertThat(loader.load(99L)).isNull();
+
+        assertThat(requested).containsExactly(List.of(1L, 2L, 99L, 3L));
+        assertThat(loader.batches()).isEqualTo(1);
+    }
+
+    @Test
+    void loadAllSkipsMissingAndOnlyFetchesNewKeys() {
+        loader.load(1L);
+
+        assertThat(loader.loadAll(List.of(2L, 1L, 42L)).keySet()).containsExactly(2L, 1L);
+        assertThat(requested).containsExactly(List.of(1L), List.of(2L, 42L));
+        assertThat(loader.loadAll(List.of(42L, 2L))).hasSize(1);
+        assertThat(loader.batches()).isEqualTo(2);
+    }
+
+    @Test
+    void forgottenKeyIsReadAgain() {
+        assertThat(loader.load(1L).getName()).isEqualTo("user1");
+        loader.load(1L);
+
+        loader.forget(1L);
+
+        assertThat(loader.load(1L).getName()).isEqualTo("user1");
+        assertThat(requested).containsExactly(List.of(1L), List.of(1L));
+    }
+}
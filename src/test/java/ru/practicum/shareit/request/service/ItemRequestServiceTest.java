@@ -0,0 +1,91 @@
+package ru.practicum.shareit.request.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.repository.BookingMemoryRepository;
+import ru.practicum.shareit.event.EventRing;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemRequestServiceTest {
+    private ItemRequestService itemRequestService;
+    private ItemService itemService;
+    private long requestor;
+    private long owner;
+
+    @BeforeEach
+    void setUp() {
+        UserMemoryRepository userRepository = new UserMemoryRepository();
+        ItemMemoryRepository itemRepository = new ItemMemoryRepository();
+        ItemRequestMemoryRepository itemRequestRepository = new ItemRequestMemoryRepository();
+        EventRing events = new EventRing(1024);
+        UserService userService = new UserServiceImpl(userRepository, itemRepository, new BookingMemoryRepository(), events);
+        RequestLoaders loaders = new RequestLoaders(userRepository, itemRepository, itemRequestRepository);
+        itemService = new ItemServiceImpl(itemRepository, loaders, new ObjectMapper(), events);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, itemRepository, loaders);
+        requestor = userService.addUser(new UserDto("requestor", "requestor@mail.ru")).getId();
+        owner = userService.addUser(new UserDto("owner", "owner@mail.ru")).getId();
+    }
+
+    @Test
+    void ownRequestsComeNewestFirstWithTheirAnswers() {
+        long drill = addRequest(requestor, "Нужна дрель");
+        long ladder = addRequest(requestor, "Нужна стремянка");
+        itemService.addItem(owner, new ItemDto("Дрель", "Ударная дрель", true, drill));
+        itemService.addItem(owner, new ItemDto("Дрель", "Простая дрель", true, drill));
+        itemService.addItem(owner, new ItemDto("Пила", "Без запроса", true, null));
+
+        List<ItemRequestDto> requests = itemRequestService.getOwnRequests(requestor, PageParams.ALL);
+
+        assertThat(requests).extracting(ItemRequestDto::getId).containsExactly(ladder, drill);
+        assertThat(requests.get(0).getItems()).isEmpty();
+        assertThat(requests.get(1).getItems()).extracting(ItemDto::getDescription)
+                .containsExactly("Ударная дрель", "Простая дрель");
+        assertThat(requests.get(0).getCreated()).isAfterOrEqualTo(requests.get(1).getCreated());
+    }
+
+    @Test
+    void feedOfOtherUsersRequestsIsPagedByCursor() {
+        for (int i = 0; i < 5; i++) {
+            addRequest(requestor, "Запрос " + i);
+            addRequest(owner, "Свой запрос " + i);
+        }
+
+        List<ItemRequestDto> first = itemRequestService.getOtherRequests(owner, new PageParams(0, 0, 3));
+        long cursor = first.get(first.size() - 1).getId();
+        List<ItemRequestDto> second = itemRequestService.getOtherRequests(owner, new PageParams(cursor, 0, 3));
+
+        assertThat(first).extracting(ItemRequestDto::getDescription)
+                .containsExactly("Запрос 4", "Запрос 3", "Запрос 2");
+        assertThat(second).extracting(ItemRequestDto::getDescription).containsExactly("Запрос 1", "Запрос 0");
+    }
+
+    @Test
+    void itemForUnknownRequestIsRejected() {
+        assertThatThrownBy(() -> itemService.addItem(owner, new ItemDto("Дрель", "Дрель", true, 42L)))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    private long addRequest(long userId, String description) {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription(description);
+        return itemRequestService.addRequest(userId, itemRequestDto).getId();
+    }
+}
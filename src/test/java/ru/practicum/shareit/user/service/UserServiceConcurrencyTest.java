@@ -0,0 +1,274 @@
+package ru.practicum.shareit.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.repository.BookingMemoryRepository;
+import ru.practicum.shareit.event.EventRing;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPatchDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemMemoryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.loader.RequestLoaders;
+import ru.practicum.shareit.pagination.PageParams;
+import ru.practicum.shareit.request.repository.ItemRequestMemoryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPatchDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.UserField;
+import ru.practicum.shareit.user.repository.UserMemoryRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int EMAILS = 1_000;
+
+    private UserMemoryRepository userRepository;
+    private ItemMemoryRepository itemRepository;
+    private UserService userService;
+    private ItemService itemService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = new UserMemoryRepository();
+        itemRepository = new ItemMemoryRepository();
+        EventRing events = new EventRing(1024);
+        userService = new UserServiceImpl(userRepository, itemRepository, new BookingMemoryRepository(), events);
+        itemService = new ItemServiceImpl(itemRepository,
+                new RequestLoaders(userRepository, itemRepository, new ItemRequestMemoryRepository()),
+                new ObjectMapper(), events);
+    }
+
+    @Test
+    void concurrentAddUserKeepsEmailsUniqueAndLosesNoIds() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < EMAILS * 2; i++) {
+                int email = (i + thread * 37) % EMAILS;
+                try {
+                    userService.addUser(new UserDto("user", "user" + email + "@mail.ru"));
+                    created.incrementAndGet();
+                } catch (ValidationException ignored) {
+                    // email уже занят другим потоком
+                }
+            }
+        });
+
+        List<UserDto> users = userService.getAllUsers(PageParams.ALL);
+        assertThat(created.get()).isEqualTo(EMAILS);
+        assertThat(users).hasSize(EMAILS);
+        assertThat(users.stream().map(UserDto::getId).distinct()).hasSize(EMAILS);
+        assertThat(users.stream().map(UserDto::getEmail).distinct()).hasSize(EMAILS);
+    }
+
+    @Test
+    void concurrentEmailChangesNeverProduceDuplicates() throws Exception {
+        int userCount = 200;
+        for (int i = 0; i < userCount; i++) {
+            userService.addUser(new UserDto("user", "user" + i + "@mail.ru"));
+        }
+
+        runConcurrently(thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 5_000; i++) {
+                long id = random.nextLong(1, userCount + 1);
+                UserPatchDto patch = new UserPatchDto();
+                patch.setEmail("user" + random.nextInt(userCount * 2) + "@mail.ru");
+                try {
+                    userService.updateUser(id, patch, false);
+                } catch (ValidationException ignored) {
+                    // email уже занят
+                }
+            }
+        });
+
+        Set<String> emails = new HashSet<>();
+        for (UserDto user : userService.getAllUsers(PageParams.ALL)) {
+            assertThat(emails.add(user.getEmail())).isTrue();
+        }
+        assertThat(emails).hasSize(userCount);
+        for (int i = 0; i < userCount * 2; i++) {
+            String email = "user" + i + "@mail.ru";
+            assertThat(userRepository.isEmailPresent(email)).isEqualTo(emails.contains(email));
+        }
+    }
+
+    @Test
+    void emailChangeOfDeletedUserDoesNotReserveEmail() {
+        long id = userService.addUser(new UserDto("user", "deleted@mail.ru")).getId();
+        User stale = new User(userRepository.getUserById(id));
+        userService.deleteUser(id);
+        stale.setEmail("taken-by-nobody@mail.ru");
+
+        assertThat(userRepository.updateUser(stale, EnumSet.of(UserField.EMAIL)))
+                .isEqualTo(UserRepository.UpdateResult.STALE);
+        assertThat(userRepository.isEmailPresent("taken-by-nobody@mail.ru")).isFalse();
+    }
+
+    @Test
+    void emailChangesRacingDeletesLeaveOnlyLiveEmails() throws Exception {
+        int userCount = 500;
+        for (int i = 0; i < userCount; i++) {
+            userService.addUser(new UserDto("user", "user" + i + "@mail.ru"));
+        }
+
+        runConcurrently(thread -> {
+            for (int id = 1; id <= userCount; id++) {
+                try {
+                    if (thread % 2 == 0) {
+                        UserPatchDto patch = new UserPatchDto();
+                        patch.setEmail("moved" + id + "-" + thread + "@mail.ru");
+                        userService.updateUser(id, patch, false);
+                    } else if (thread == 1) {
+                        userService.deleteUser(id);
+                    }
+                } catch (NotFoundException | ValidationException ignored) {
+                    // пользователь уже удалён
+                }
+            }
+        });
+
+        Set<String> live = new HashSet<>();
+        userService.getAllUsers(PageParams.ALL).forEach(user -> live.add(user.getEmail()));
+        for (int id = 1; id <= userCount; id++) {
+            for (int thread = 0; thread < THREADS; thread += 2) {
+                String email = "moved" + id + "-" + thread + "@mail.ru";
+                assertThat(userRepository.isEmailPresent(email)).isEqualTo(live.contains(email));
+            }
+        }
+    }
+
+    @Test
+    void concurrentAddItemLosesNoUpdates() throws Exception {
+        for (int i = 0; i < THREADS; i++) {
+            userService.addUser(new UserDto("owner", "owner" + i + "@mail.ru"));
+        }
+        int perThread = 2_000;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                itemService.addItem(thread + 1, new ItemDto("Дрель", "Простая дрель", true, null));
+            }
+        });
+
+        Set<Long> ids = new HashSet<>();
+        for (int owner = 1; owner <= THREADS; owner++) {
+            List<ItemDto> items = itemService.getAllItemsByUserId(owner, PageParams.ALL);
+            assertThat(items).hasSize(perThread);
+            items.forEach(item -> ids.add(item.getId()));
+        }
+        assertThat(ids).hasSize(THREADS * perThread);
+        assertThat(itemService.getItemsBySearch("дрель", PageParams.ALL)).hasSize(THREADS * perThread);
+    }
+
+    @Test
+    void addItemRacingOwnerDeletionLeavesNoOrphans() throws Exception {
+        int userCount = 300;
+        for (int i = 0; i < userCount; i++) {
+            userService.addUser(new UserDto("owner", "owner" + i + "@mail.ru"));
+        }
+
+        runConcurrently(thread -> {
+            for (int id = 1; id <= userCount; id++) {
+                try {
+                    if (thread == 0) {
+                        userService.deleteUser(id);
+                    } else {
+                        itemService.addItem(id, new ItemDto("Дрель", "Простая дрель", true, null));
+                    }
+                } catch (NotFoundException ignored) {
+                    // владелец уже удалён
+                }
+            }
+        });
+
+        assertThat(userService.getAllUsers(PageParams.ALL)).isEmpty();
+        for (long id = 1; id <= userCount; id++) {
+            assertThat(itemRepository.getAllItemsByUserId(id, PageParams.ALL)).isEmpty();
+        }
+        assertThat(itemService.getItemsBySearch("дрель", PageParams.ALL)).isEmpty();
+    }
+
+    @Test
+    void addItemAfterOwnerItemsAreDeletedIsRejected() {
+        long owner = userService.addUser(new UserDto("owner", "late@mail.ru")).getId();
+        User user = userRepository.getUserById(owner);
+        itemRepository.deleteAllItemsByUserId(owner);
+
+        Item item = new Item("Дрель", "Поздняя", true);
+        item.setOwner(user);
+        assertThat(itemRepository.addItem(item)).isNull();
+        assertThat(itemRepository.addItems(List.of(item))).isEmpty();
+        assertThat(itemRepository.getAllItemsByUserId(owner, PageParams.ALL)).isEmpty();
+    }
+
+    @Test
+    void concurrentPatchesOfOneItemGetDistinctVersions() throws Exception {
+        long owner = userService.addUser(new UserDto("owner", "owner@mail.ru")).getId();
+        long id = itemService.addItem(owner, new ItemDto("Дрель", "Простая дрель", true, null)).getId();
+        Map<Long, String> bodies = new ConcurrentHashMap<>();
+        AtomicInteger updated = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 200; i++) {
+                ItemPatchDto patch = new ItemPatchDto();
+                patch.setDescription("Дрель " + thread + "-" + i);
+                try {
+                    ItemDto item = itemService.updateItem(owner, id, patch, true);
+                    assertThat(bodies.putIfAbsent(item.getVersion(), item.getDescription())).isNull();
+                    updated.incrementAndGet();
+                } catch (ValidationException ignored) {
+                    // изменение проиграло параллельным все попытки
+                }
+            }
+        });
+
+        ItemDto stored = itemService.getItemById(id);
+        assertThat(stored.getVersion()).isEqualTo(updated.get());
+        assertThat(stored.getDescription()).isEqualTo(bodies.get(stored.getVersion()));
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}